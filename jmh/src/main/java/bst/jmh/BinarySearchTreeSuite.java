@@ -0,0 +1,208 @@
+package bst.jmh;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import bst.BinarySearchTree;
+
+// BinarySearchTreeSuite class
+//
+// Usage: mvn -B package
+//        java -jar jmh/target/benchmarks.jar -rf json [ -p size=10000000 ] [ regex ]
+//
+// JMH regression suite for BinarySearchTree, run for every combination
+// of balance policy, key distribution and size. Sizes run from 1,000 up
+// by factors of ten to 1,000,000; 10,000,000 needs -p size=... and a
+// large heap (-jvmArgs -Xmx8g). -rf json writes jmh-result.json, which
+// the usual JMH tooling can compare between runs.
+//
+// The keys of a tree are 0 .. n-1, inserted in random, sorted or zig-zag
+// (0, n-1, 1, n-2, ...) order. Sorted and zig-zag orders make a
+// degenerate unbalanced tree that takes quadratic time to build, so those
+// trials fail at setup above DEGENERATE_LIMIT keys; JMH reports them and
+// goes on with the rest.
+//
+// insert and remove count one operation per whole tree of size keys;
+// the other per-key benchmarks count one operation per call.
+
+/**
+ * Throughput regression suite for BinarySearchTree.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 2, time = 500, timeUnit = TimeUnit.MILLISECONDS )
+@Measurement( iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class BinarySearchTreeSuite
+{
+    private static final int DEGENERATE_LIMIT = 10000;
+
+    @Param( { "NONE", "AVL", "SPLAY", "SCAPEGOAT" } )
+    public BinarySearchTree.Balance balance;
+
+    @Param( { "random", "sorted", "zigzag" } )
+    public String distribution;
+
+    @Param( { "1000", "10000", "100000", "1000000" } )
+    public int size;
+
+    private int [ ] keys;       // Insertion order
+    private int [ ] probes;     // Lookup and removal order
+    private int next;           // Index of the next probe
+    private BinarySearchTree<Integer> tree;
+    private BinarySearchTree<Integer> twin;    // Equal to tree, sharing no nodes
+
+        // Each benchmark runs in its own fork with its own trees, so a
+        // contains that splays tree cannot disturb the other benchmarks
+    @Setup( Level.Trial )
+    public void setUp( )
+    {
+        if( balance == BinarySearchTree.Balance.NONE
+                && !distribution.equals( "random" ) && size > DEGENERATE_LIMIT )
+            throw new IllegalArgumentException( "degenerate " + distribution
+                    + " tree of " + size + " keys skipped" );
+
+        keys = new int[ size ];
+        for( int i = 0; i < size; i++ )
+            keys[ i ] = i;
+        if( distribution.equals( "random" ) )
+            shuffle( keys, new Random( 42 ) );
+        else if( distribution.equals( "zigzag" ) )
+            for( int i = 0; i < size; i++ )
+                keys[ i ] = ( i & 1 ) == 0 ? i / 2 : size - 1 - i / 2;
+        probes = new int[ size ];
+        for( int i = 0; i < size; i++ )
+            probes[ i ] = i;
+        shuffle( probes, new Random( 43 ) );
+
+        tree = build( );
+        twin = build( );
+    }
+
+    @Benchmark
+    public BinarySearchTree<Integer> insert( )
+    {
+        return build( );
+    }
+
+    @Benchmark
+    public BinarySearchTree<Integer> remove( Doomed d )
+    {
+        for( int x : probes )
+            d.tree.remove( x );
+        return d.tree;
+    }
+
+    @Benchmark
+    public boolean contains( )
+    {
+        return tree.contains( probe( ) );
+    }
+
+    @Benchmark
+    public Integer findMin( )
+    {
+        return tree.findMin( );
+    }
+
+    @Benchmark
+    public Integer findMax( )
+    {
+        return tree.findMax( );
+    }
+
+    @Benchmark
+    public int nodeCount( )
+    {
+        return tree.nodeCount( );
+    }
+
+    @Benchmark
+    public BinarySearchTree<Integer> copy( )
+    {
+        return tree.copy( );
+    }
+
+    @Benchmark
+    public BinarySearchTree<Integer> mirror( )
+    {
+        return tree.mirror( );
+    }
+
+    @Benchmark
+    public boolean structurallyEquals( )
+    {
+        return tree.structurallyEquals( twin );
+    }
+
+    @Benchmark
+    public void printLevels( Blackhole bh ) throws IOException
+    {
+        Writer out = new BufferedWriter( Writer.nullWriter( ) );
+        tree.writeLevels( out );
+        out.flush( );
+        bh.consume( out );
+    }
+
+    private BinarySearchTree<Integer> build( )
+    {
+        BinarySearchTree<Integer> t = new BinarySearchTree<>( balance );
+        for( int x : keys )
+            t.insert( x );
+        return t;
+    }
+
+    /**
+     * Return the next probe key, cycling through probes.
+     */
+    private int probe( )
+    {
+        int x = probes[ next ];
+        next = next + 1 == probes.length ? 0 : next + 1;
+        return x;
+    }
+
+    /**
+     * A full tree for remove to empty, rebuilt before every call.
+     */
+    @State( Scope.Thread )
+    public static class Doomed
+    {
+        @Setup( Level.Invocation )
+        public void rebuild( BinarySearchTreeSuite suite )
+        {
+            tree = suite.build( );
+        }
+
+        BinarySearchTree<Integer> tree;
+    }
+
+    private static void shuffle( int [ ] a, Random r )
+    {
+        for( int i = a.length - 1; i > 0; i-- )
+        {
+            int j = r.nextInt( i + 1 );
+            int tmp = a[ i ];
+            a[ i ] = a[ j ];
+            a[ j ] = tmp;
+        }
+    }
+}
@@ -0,0 +1,481 @@
+package bst;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+// BTree class
+//
+// CONSTRUCTION: with no initializer or a minimum degree
+//
+// ******************PUBLIC OPERATIONS*********************
+// void insert( x )       --> Insert x
+// void remove( x )       --> Remove x
+// boolean contains( x )  --> Return true if x is present
+// Comparable findMin( )  --> Return smallest item
+// Comparable findMax( )  --> Return largest item
+// boolean isEmpty( )     --> Return true if empty; else false
+// void makeEmpty( )      --> Remove all items
+// int nodeCount( )       --> Return number of items
+// void printTree( )      --> Print tree in sorted order
+// void printLevels( )    --> Print tree level by level
+// ******************ERRORS********************************
+// Throws UnderflowException as appropriate
+
+/**
+ * Implements a B-tree, a sibling of BinarySearchTree whose nodes each
+ * hold a sorted block of items. With minimum degree t every node except
+ * the root holds t - 1 to 2t - 1 items, and every leaf is at the same
+ * depth, so a search visits about log base t of n nodes instead of log
+ * base 2, and there is one node header per block of items rather than
+ * per item. The default block of 31 item references spans about two
+ * cache lines with compressed references.
+ * <p>
+ * Insert and remove are single top-down passes, as in Cormen et al.:
+ * insert splits every full node on its way down, and remove tops up
+ * every minimal node on its way down by borrowing from or merging with
+ * a sibling, so neither ever has to walk back up.
+ * Note that all "matching" is based on the compareTo method.
+ */
+public class BTree<AnyType extends Comparable<? super AnyType>>
+{
+    /**
+     * Construct the tree.
+     */
+    public BTree( )
+    {
+        this( DEFAULT_DEGREE );
+    }
+
+    /**
+     * Construct the tree with the given minimum degree.
+     * @param degree the minimum number of children of an internal
+     *        node other than the root; at least 2.
+     */
+    public BTree( int degree )
+    {
+        if( degree < 2 )
+            throw new IllegalArgumentException( "degree must be at least 2" );
+        t = degree;
+        root = null;
+    }
+
+    /**
+     * Insert into the tree; duplicates are ignored.
+     * @param x the item to insert.
+     */
+    public void insert( AnyType x )
+    {
+        if( root == null )
+        {
+            root = new BNode( t, true );
+            root.keys[ 0 ] = x;
+            root.n = 1;
+            count++;
+            return;
+        }
+        if( root.n == 2 * t - 1 )
+        {
+            BNode s = new BNode( t, false );
+            s.children[ 0 ] = root;
+            root = s;
+            split( s, 0 );
+        }
+
+        BNode node = root;
+        for( ; ; )
+        {
+            int i = search( node, x );
+            if( i >= 0 )
+                return;  // Duplicate; do nothing
+            i = -i - 1;
+
+            if( node.children == null )
+            {
+                System.arraycopy( node.keys, i, node.keys, i + 1, node.n - i );
+                node.keys[ i ] = x;
+                node.n++;
+                count++;
+                return;
+            }
+
+            if( node.children[ i ].n == 2 * t - 1 )
+            {
+                split( node, i );
+                int compareResult = x.compareTo( key( node, i ) );
+                if( compareResult == 0 )
+                    return;  // The promoted item is a duplicate
+                if( compareResult > 0 )
+                    i++;
+            }
+            node = node.children[ i ];
+        }
+    }
+
+    /**
+     * Remove from the tree. Nothing is done if x is not found.
+     * @param x the item to remove.
+     */
+    public void remove( AnyType x )
+    {
+        BNode node = root;
+        while( node != null )
+        {
+            int i = search( node, x );
+            if( i >= 0 && node.children == null )  // Found in a leaf
+            {
+                System.arraycopy( node.keys, i + 1, node.keys, i, node.n - i - 1 );
+                node.keys[ --node.n ] = null;
+                count--;
+                break;
+            }
+
+            if( i >= 0 )    // Found in an internal node
+            {
+                BNode left = node.children[ i ];
+                BNode right = node.children[ i + 1 ];
+                if( left.n >= t )
+                {
+                        // Replace x by its predecessor, then remove that
+                    x = findMax( left );
+                    node.keys[ i ] = x;
+                    node = left;
+                }
+                else if( right.n >= t )
+                {
+                    x = findMin( right );
+                    node.keys[ i ] = x;
+                    node = right;
+                }
+                else
+                {
+                    merge( node, i );
+                    node = left;
+                }
+                continue;
+            }
+
+            if( node.children == null )
+                break;      // Item not found; do nothing
+
+            i = -i - 1;
+            node = ensureRoomy( node, i );
+        }
+
+        if( root != null && root.n == 0 )
+            root = root.children == null ? null : root.children[ 0 ];
+    }
+
+    /**
+     * Find the smallest item in the tree.
+     * @return smallest item.
+     */
+    public AnyType findMin( )
+    {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        return findMin( root );
+    }
+
+    /**
+     * Find the largest item in the tree.
+     * @return the largest item.
+     */
+    public AnyType findMax( )
+    {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        return findMax( root );
+    }
+
+    /**
+     * Find an item in the tree.
+     * @param x the item to search for.
+     * @return true if found.
+     */
+    public boolean contains( AnyType x )
+    {
+        for( BNode node = root; node != null; )
+        {
+            int i = search( node, x );
+            if( i >= 0 )
+                return true;    // Match
+            node = node.children == null ? null : node.children[ -i - 1 ];
+        }
+        return false;
+    }
+
+    /**
+     * Make the tree logically empty.
+     */
+    public void makeEmpty( )
+    {
+        root = null;
+        count = 0;
+    }
+
+    /**
+     * Test if the tree is logically empty.
+     * @return true if empty, false otherwise.
+     */
+    public boolean isEmpty( )
+    {
+        return root == null;
+    }
+
+    /**
+     * Return the number of items in the tree.
+     * @return the number of items.
+     */
+    public int nodeCount( )
+    {
+        return count;
+    }
+
+    /**
+     * Print the tree contents in sorted order.
+     */
+    public void printTree( )
+    {
+        if( isEmpty( ) )
+        {
+            System.out.println( "Empty tree" );
+            return;
+        }
+
+            // Each entry is a node and the index of its next item
+        Deque<BNode> nodes = new ArrayDeque<>( );
+        Deque<Integer> next = new ArrayDeque<>( );
+        for( BNode node = root; node != null; node = node.children == null ? null : node.children[ 0 ] )
+        {
+            nodes.push( node );
+            next.push( 0 );
+        }
+        while( !nodes.isEmpty( ) )
+        {
+            BNode node = nodes.peek( );
+            int i = next.pop( );
+            if( i == node.n )
+            {
+                nodes.pop( );
+                continue;
+            }
+            System.out.println( node.keys[ i ] );
+            next.push( i + 1 );
+            if( node.children != null )
+                for( BNode c = node.children[ i + 1 ]; c != null; c = c.children == null ? null : c.children[ 0 ] )
+                {
+                    nodes.push( c );
+                    next.push( 0 );
+                }
+        }
+    }
+
+    /**
+     * Print the tree one level per line, left to right, with the items
+     * of each node in brackets.
+     */
+    public void printLevels( )
+    {
+        if( isEmpty( ) )
+        {
+            System.out.println( "Empty tree" );
+            return;
+        }
+
+        Deque<BNode> q = new ArrayDeque<>( );
+        q.add( root );
+        while( !q.isEmpty( ) )
+        {
+            StringBuilder line = new StringBuilder( );
+            for( int levelSize = q.size( ); levelSize > 0; levelSize-- )
+            {
+                BNode node = q.remove( );
+                line.append( '[' );
+                for( int i = 0; i < node.n; i++ )
+                    line.append( i == 0 ? "" : " " ).append( node.keys[ i ] );
+                line.append( "] " );
+                if( node.children != null )
+                    for( int i = 0; i <= node.n; i++ )
+                        q.add( node.children[ i ] );
+            }
+            System.out.println( line );
+        }
+    }
+
+    /**
+     * Internal method to binary search the items of a node.
+     * @return the index of x, or -( insertion point ) - 1 if absent.
+     */
+    private int search( BNode node, AnyType x )
+    {
+        int low = 0;
+        int high = node.n - 1;
+        while( low <= high )
+        {
+            int mid = ( low + high ) >>> 1;
+            int compareResult = x.compareTo( key( node, mid ) );
+            if( compareResult > 0 )
+                low = mid + 1;
+            else if( compareResult < 0 )
+                high = mid - 1;
+            else
+                return mid;     // Match
+        }
+        return -( low + 1 );
+    }
+
+    /**
+     * Internal method to split the full child i of parent into two nodes
+     * of t - 1 items, moving the middle item up into parent.
+     * Parent is not full.
+     */
+    private void split( BNode parent, int i )
+    {
+        BNode full = parent.children[ i ];
+        BNode right = new BNode( t, full.children == null );
+        right.n = t - 1;
+        System.arraycopy( full.keys, t, right.keys, 0, t - 1 );
+        if( full.children != null )
+        {
+            System.arraycopy( full.children, t, right.children, 0, t );
+            Arrays.fill( full.children, t, 2 * t, null );
+        }
+
+        System.arraycopy( parent.keys, i, parent.keys, i + 1, parent.n - i );
+        System.arraycopy( parent.children, i + 1, parent.children, i + 2, parent.n - i );
+        parent.keys[ i ] = full.keys[ t - 1 ];
+        parent.children[ i + 1 ] = right;
+        parent.n++;
+
+        Arrays.fill( full.keys, t - 1, 2 * t - 1, null );
+        full.n = t - 1;
+    }
+
+    /**
+     * Internal method to merge children i and i + 1 of parent, both with
+     * t - 1 items, around item i of parent, which loses that item.
+     */
+    private void merge( BNode parent, int i )
+    {
+        BNode left = parent.children[ i ];
+        BNode right = parent.children[ i + 1 ];
+
+        left.keys[ t - 1 ] = parent.keys[ i ];
+        System.arraycopy( right.keys, 0, left.keys, t, right.n );
+        if( left.children != null )
+            System.arraycopy( right.children, 0, left.children, t, right.n + 1 );
+        left.n = 2 * t - 1;
+
+        System.arraycopy( parent.keys, i + 1, parent.keys, i, parent.n - i - 1 );
+        System.arraycopy( parent.children, i + 2, parent.children, i + 1, parent.n - i - 1 );
+        parent.n--;
+        parent.keys[ parent.n ] = null;
+        parent.children[ parent.n + 1 ] = null;
+    }
+
+    /**
+     * Internal method to make sure child i of node has at least t items
+     * before the descent enters it, by borrowing an item through node
+     * from a sibling with one to spare, or else by merging with a sibling.
+     * @return the child to descend into.
+     */
+    private BNode ensureRoomy( BNode node, int i )
+    {
+        BNode child = node.children[ i ];
+        if( child.n >= t )
+            return child;
+
+        BNode left = i > 0 ? node.children[ i - 1 ] : null;
+        BNode right = i < node.n ? node.children[ i + 1 ] : null;
+        if( left != null && left.n >= t )
+        {
+                // Rotate the separator down into child, left's last item up
+            System.arraycopy( child.keys, 0, child.keys, 1, child.n );
+            child.keys[ 0 ] = node.keys[ i - 1 ];
+            node.keys[ i - 1 ] = left.keys[ left.n - 1 ];
+            left.keys[ left.n - 1 ] = null;
+            if( child.children != null )
+            {
+                System.arraycopy( child.children, 0, child.children, 1, child.n + 1 );
+                child.children[ 0 ] = left.children[ left.n ];
+                left.children[ left.n ] = null;
+            }
+            left.n--;
+            child.n++;
+            return child;
+        }
+        if( right != null && right.n >= t )
+        {
+                // Rotate the separator down into child, right's first item up
+            child.keys[ child.n ] = node.keys[ i ];
+            node.keys[ i ] = right.keys[ 0 ];
+            System.arraycopy( right.keys, 1, right.keys, 0, right.n - 1 );
+            right.keys[ right.n - 1 ] = null;
+            if( child.children != null )
+            {
+                child.children[ child.n + 1 ] = right.children[ 0 ];
+                System.arraycopy( right.children, 1, right.children, 0, right.n );
+                right.children[ right.n ] = null;
+            }
+            right.n--;
+            child.n++;
+            return child;
+        }
+        if( right != null )
+        {
+            merge( node, i );
+            return child;
+        }
+        merge( node, i - 1 );
+        return left;
+    }
+
+    /**
+     * Internal method to find the smallest item in a subtree.
+     */
+    private AnyType findMin( BNode node )
+    {
+        while( node.children != null )
+            node = node.children[ 0 ];
+        return key( node, 0 );
+    }
+
+    /**
+     * Internal method to find the largest item in a subtree.
+     */
+    private AnyType findMax( BNode node )
+    {
+        while( node.children != null )
+            node = node.children[ node.n ];
+        return key( node, node.n - 1 );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private AnyType key( BNode node, int i )
+    {
+        return (AnyType) node.keys[ i ];
+    }
+
+    // Node holding up to 2t - 1 sorted items
+    private static class BNode
+    {
+        BNode( int t, boolean leaf )
+        {
+            keys = new Object[ 2 * t - 1 ];
+            children = leaf ? null : new BNode[ 2 * t ];
+        }
+
+        Object [ ] keys;        // Items; the first n are in use
+        BNode [ ] children;     // Children; the first n + 1 are in use; null in a leaf
+        int n;                  // Number of items
+    }
+
+    private static final int DEFAULT_DEGREE = 16;
+
+    private final int t;        // Minimum degree
+
+      /** The tree root. */
+    private BNode root;
+    private int count;          // Number of items in the tree
+}
@@ -0,0 +1,4179 @@
+package bst;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// BinarySearchTree class
+//
+// CONSTRUCTION: with no initializer or a Balance policy, and optionally
+//               true for a multiset that counts duplicates;
+//               fromSorted/fromUnsorted bulk-load a balanced tree;
+//               load( file ) restores an Integer tree saved by save( t, file )
+//
+// ******************PUBLIC OPERATIONS*********************
+// void insert( x )       --> Insert x
+// void remove( x )       --> Remove x
+// removeAllOccurrences( x ) --> Remove every occurrence of x
+// int insertAll( c )     --> Insert a batch; return number added
+// int deleteAll( c )     --> Remove a batch; return number removed
+// boolean contains( x )  --> Return true if x is present
+// Comparable findMin( )  --> Return smallest item
+// Comparable findMax( )  --> Return largest item
+// boolean isEmpty( )     --> Return true if empty; else false
+// void makeEmpty( )      --> Remove all items
+// void printTree( )      --> Print tree in sorted order
+// Iterator iterator( )   --> Iterate in sorted order
+// descendingIterator( )  --> Iterate in reverse sorted order
+// subRange( lo, hi )     --> Iterate over items in [lo, hi)
+// Stream stream( )       --> Stream in sorted order; may be parallel
+// freeze( )              --> Return an immutable array-packed copy
+// int nodeCount( )       --> Return number of items, in O(1)
+// int count( x )         --> Return number of occurrences of x
+// long totalCount( )     --> Return number of occurrences, in O(1)
+// boolean isMultiset( )  --> Return true if duplicates are counted
+// Comparable select( k ) --> Return item with k smaller items
+// int rank( x )          --> Return number of items smaller than x
+// Comparable median( )   --> Return the lower median item
+// Balance balance( )     --> Return the balancing policy
+// int height( )          --> Return the height; -1 if empty
+// void rebalance( )      --> Reshape into a tree of minimal height
+// Cursor cursor( x )     --> Return a handle on the node holding x
+// enableMetrics( )       --> Start recording operation metrics
+// disableMetrics( )      --> Stop recording operation metrics
+// levelOrder( sink )     --> Visit items level by level
+// writeLevels( out )     --> Write printLevels output to a Writer
+// long digest( )         --> Return a hash of the items and shape
+// diff( t2 )             --> Return the paths where two trees differ
+// save( t, file )       --> Write an Integer tree to a snapshot file
+// Also the java.util.NavigableSet operations: add, remove( Object ),
+// size, clear, first, last, floor, ceiling, higher, lower, pollFirst,
+// pollLast, descendingSet, and the subSet, headSet and tailSet views
+// ******************ERRORS********************************
+// Throws UnderflowException as appropriate
+
+/**
+ * Implements a binary search tree, unbalanced by default.
+ * Constructed with Balance.AVL, every insert and remove restores
+ * the AVL height condition so the height stays O(log n).
+ * Constructed with Balance.SPLAY, contains, insert and remove splay the
+ * node they reach to the root, so recently used items are found in a few
+ * comparisons and any sequence of operations costs O(log n) amortized
+ * each. In this mode contains changes the tree, and may copy shared nodes.
+ * Constructed with Balance.SCAPEGOAT, an insert that lands deeper than
+ * log base 1/ALPHA of n rebuilds the subtree of the deepest ancestor on
+ * its path that holds more than ALPHA of its nodes on one side.
+ * The search, update and copy paths are loops rather than recursion,
+ * so even a degenerate tree is limited by the heap, not the thread stack.
+ * <p>
+ * Nodes are copy-on-write. Each node records the tree that created it,
+ * and a tree changes only nodes it owns, copying any other node on its
+ * update path first. copy( ) therefore just shares the root and gives
+ * this tree a new identity: it runs in O(1), and every later insert,
+ * remove or rotation copies only the O(height) nodes it touches. A tree
+ * that has been handed to other threads as a snapshot is never written
+ * again, so it may be read concurrently without locking.
+ * <p>
+ * The whole-tree checks isFull, compareStructure, structurallyEquals
+ * and isMirror, and mirror( ), split large trees into fork/join tasks on
+ * the common pool. Subtrees below PARALLEL_THRESHOLD nodes are handled
+ * sequentially, with an explicit stack rather than recursion.
+ * Every node also caches Merkle hashes of its subtree's shape and contents,
+ * kept up to date wherever the height is, so these checks reject unequal
+ * trees in O(1) by comparing root hashes and skip subtrees that are shared
+ * after a copy. The content hashes use hashCode, which must agree with
+ * compareTo for them to be meaningful.
+ * <p>
+ * The tree is a NavigableSet, so it can replace a TreeSet. Nearest-item
+ * queries are single descents, and the range views are bounds over this
+ * tree rather than copies; their sizes come from the cached subtree sizes
+ * in O(height). equals and hashCode follow the Set contract, while
+ * structurallyEquals also compares shape.
+ * <p>
+ * Constructed as a multiset, each node also counts the occurrences of its
+ * item: insert of an item already present increments its count, and
+ * remove decrements it, unlinking the node only when it reaches zero.
+ * A stream with many duplicates then costs one node per distinct item.
+ * count( x ) is a single descent and totalCount( ) is O(1). The set view
+ * (iteration, size, the order statistics, and removeAll, the polls and
+ * iterator removal, which drop an item with all its occurrences) sees
+ * each distinct item once. remove( Object ), like remove( x ), drops one
+ * occurrence, and removeAllOccurrences( x ) drops them all. The counts
+ * are part of the content hashes, so structurallyEquals and digest tell
+ * apart multisets that differ only in multiplicity.
+ * Note that all "matching" is based on the compareTo method.
+ * @author Mark Allen Weiss
+ */
+public class BinarySearchTree<AnyType extends Comparable<? super AnyType>> extends AbstractSet<AnyType>
+                                                                         implements NavigableSet<AnyType>
+{
+    /**
+     * Balancing policies applied by insert and remove.
+     */
+    public enum Balance
+    {
+        NONE,   // Plain unbalanced tree
+        AVL,    // Height-balanced; subtree heights differ by at most one
+        SPLAY,  // Self-adjusting; each access moves its node to the root
+        SCAPEGOAT   // Rebuilds a subtree when an insert lands too deep
+    }
+
+    /**
+     * Construct the tree.
+     */
+    public BinarySearchTree( )
+    {
+        this( Balance.NONE );
+    }
+
+    /**
+     * Construct the tree with the given balancing policy.
+     * @param balance the policy applied by insert and remove.
+     */
+    public BinarySearchTree( Balance balance )
+    {
+        this( balance, false );
+    }
+
+    /**
+     * Construct the tree with the given balancing policy, optionally
+     * as a multiset.
+     * @param balance the policy applied by insert and remove.
+     * @param multiset true to count duplicates rather than ignore them.
+     */
+    public BinarySearchTree( Balance balance, boolean multiset )
+    {
+        this.balance = balance;
+        this.multiset = multiset;
+        root = null;
+    }
+
+    /**
+     * Build a tree of minimal height from items in strictly increasing
+     * order, in O(n) time and without comparing any items.
+     * @param items the items, sorted with no duplicates; this is not checked.
+     * @return the new tree.
+     */
+    public static <AnyType extends Comparable<? super AnyType>>
+    BinarySearchTree<AnyType> fromSorted( AnyType [ ] items )
+    {
+        return fromSorted( Arrays.asList( items ).iterator( ), items.length, Balance.NONE );
+    }
+
+    /**
+     * Build a tree of minimal height from items in strictly increasing
+     * order, in O(n) time and without comparing any items.
+     * @param items the items, sorted with no duplicates; this is not checked.
+     * @return the new tree.
+     */
+    public static <AnyType extends Comparable<? super AnyType>>
+    BinarySearchTree<AnyType> fromSorted( List<? extends AnyType> items )
+    {
+        return fromSorted( items.iterator( ), items.size( ), Balance.NONE );
+    }
+
+    /**
+     * Build a tree of minimal height from the next n items of an iterator,
+     * which must be in strictly increasing order. Runs in O(n) time without
+     * comparing any items; the iterator is consumed in order, so it may
+     * stream from a file or cursor.
+     * @param items supplies the items, sorted with no duplicates; this is not checked.
+     * @param n the number of items to take.
+     * @param balance the policy for later inserts and removes.
+     * @return the new tree.
+     */
+    public static <AnyType extends Comparable<? super AnyType>>
+    BinarySearchTree<AnyType> fromSorted( Iterator<? extends AnyType> items, int n, Balance balance )
+    {
+        BinarySearchTree<AnyType> t = new BinarySearchTree<>( balance );
+        t.root = t.build( items, n );
+        t.count = n;
+        t.total = n;
+        return t;
+    }
+
+    /**
+     * Build a tree of minimal height from items in any order.
+     * The items are sorted first and duplicates dropped, so this
+     * costs O(n log n) rather than the O(n^2) of repeated inserts
+     * of nearly sorted input.
+     * @param items the items to load.
+     * @return the new tree.
+     */
+    @SuppressWarnings( "unchecked" )
+    public static <AnyType extends Comparable<? super AnyType>>
+    BinarySearchTree<AnyType> fromUnsorted( Collection<? extends AnyType> items )
+    {
+        Object [ ] sorted = items.toArray( );
+        int n = sortDistinct( sorted );
+
+        Iterator<AnyType> distinct = (Iterator<AnyType>) (Iterator<?>) Arrays.asList( sorted ).iterator( );
+        return fromSorted( distinct, n, Balance.NONE );
+    }
+
+    /**
+     * Save a tree of Integers to a file in the Snapshot format, through
+     * a FileChannel, and force it to the device. The exact shape and the
+     * balance policy are kept, so load( ) gives back an equal tree.
+     * A multiset is saved with its counts, in a version 2 file.
+     * @param t the tree to save.
+     * @param file the file to create or replace.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void save( BinarySearchTree<Integer> t, Path file ) throws IOException
+    {
+        try( FileChannel out = FileChannel.open( file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING ) )
+        {
+            ByteBuffer buf = ByteBuffer.allocateDirect( Snapshot.BUFFER_BYTES ).order( Snapshot.ORDER );
+            buf.putInt( Snapshot.MAGIC ).putInt( t.multiset ? Snapshot.MULTISET_VERSION : Snapshot.VERSION )
+               .putInt( t.count ).putInt( t.balance.ordinal( ) );
+
+            for( Integer x : t )
+            {
+                if( buf.remaining( ) < Integer.BYTES )
+                    Snapshot.drain( out, buf );
+                buf.putInt( x );
+            }
+
+                // Counts in the same order, by an in-order walk
+            if( t.multiset )
+            {
+                Deque<BinaryNode<Integer>> pending = new ArrayDeque<>( );
+                for( BinaryNode<Integer> n = t.root; n != null || !pending.isEmpty( ); n = n.right )
+                {
+                    for( ; n != null; n = n.left )
+                        pending.push( n );
+                    n = pending.pop( );
+                    if( buf.remaining( ) < Integer.BYTES )
+                        Snapshot.drain( out, buf );
+                    buf.putInt( n.occurrences );
+                }
+            }
+
+                // Shape bits, two per node in preorder
+            Deque<BinaryNode<Integer>> stack = new ArrayDeque<>( );
+            if( t.root != null )
+                stack.push( t.root );
+            int bits = 0;
+            int nodes = 0;
+            while( !stack.isEmpty( ) )
+            {
+                BinaryNode<Integer> n = stack.pop( );
+                if( n.right != null )
+                {
+                    stack.push( n.right );
+                    bits |= Snapshot.HAS_RIGHT << 2 * ( nodes & 3 );
+                }
+                if( n.left != null )
+                {
+                    stack.push( n.left );
+                    bits |= Snapshot.HAS_LEFT << 2 * ( nodes & 3 );
+                }
+                if( ( ++nodes & 3 ) == 0 )
+                {
+                    if( !buf.hasRemaining( ) )
+                        Snapshot.drain( out, buf );
+                    buf.put( (byte) bits );
+                    bits = 0;
+                }
+            }
+            if( ( nodes & 3 ) != 0 )
+            {
+                if( !buf.hasRemaining( ) )
+                    Snapshot.drain( out, buf );
+                buf.put( (byte) bits );
+            }
+
+            Snapshot.drain( out, buf );
+            out.force( true );
+        }
+    }
+
+    /**
+     * Load a tree of Integers saved by save( ). The file is memory-mapped
+     * and the nodes are built straight from the image in O(n) time,
+     * without comparing any items.
+     * @param file the file to load.
+     * @return the tree.
+     * @throws IOException if the file cannot be read or is not a snapshot.
+     */
+    public static BinarySearchTree<Integer> load( Path file ) throws IOException
+    {
+        return Snapshot.open( file ).toTree( );
+    }
+
+    /**
+     * Insert into the tree; duplicates are ignored, or counted in a multiset.
+     * @param x the item to insert.
+     */
+    public void insert( AnyType x )
+    {
+        settle( );
+        if( metrics == null )
+        {
+            root = insert( x, root );
+            return;
+        }
+        long start = System.nanoTime( );
+        root = insert( x, root );
+        metrics.record( TreeMetrics.Operation.INSERT, System.nanoTime( ) - start, probes, -1 );
+    }
+
+    /**
+     * Remove from the tree. Nothing is done if x is not found.
+     * In a multiset, one occurrence of x is removed.
+     * @param x the item to remove.
+     */
+    public void remove( AnyType x )
+    {
+        remove( x, false );
+    }
+
+    /**
+     * Remove every occurrence of x from the tree; the same as remove( x )
+     * unless this is a multiset. Nothing is done if x is not found.
+     * @param x the item to remove.
+     * @return the number of occurrences removed.
+     */
+    public int removeAllOccurrences( AnyType x )
+    {
+        long before = total;
+        remove( x, true );
+        return (int) ( before - total );
+    }
+
+    /**
+     * Insert a batch of items; duplicates are ignored.
+     * The batch is sorted and applied in one pass down the tree. Each item
+     * resumes from the search path of the one before, backing up only to
+     * the lowest node whose subtree can hold it. The cached fields of a
+     * node on the path are recomputed once, when the pass leaves it, and
+     * not once per item. In any balanced mode (AVL, SPLAY or SCAPEGOAT)
+     * every insertion must rebalance or restructure before the next one,
+     * so the sorted items are inserted one at a time.
+     * In a multiset every item is counted, one insert at a time.
+     * @param items the items to insert.
+     * @return the number of items added; in a multiset, of occurrences.
+     */
+    @SuppressWarnings( "unchecked" )
+    public int insertAll( Collection<? extends AnyType> items )
+    {
+        settle( );
+        if( multiset )
+        {
+            long before = total;
+            for( AnyType x : items )
+                insert( x );
+            return (int) ( total - before );
+        }
+        Object [ ] sorted = items.toArray( );
+        int n = sortDistinct( sorted );
+        int before = count;
+        if( balance == Balance.NONE )
+            applySorted( sorted, n, true );
+        else
+            for( int i = 0; i < n; i++ )
+                insert( (AnyType) sorted[ i ] );
+        return count - before;
+    }
+
+    /**
+     * Remove a batch of items; items not in the tree are ignored.
+     * In a multiset each item removes one occurrence, as remove does, and
+     * the number of occurrences removed is returned. Otherwise the batch
+     * is sorted and, in an unbalanced tree, applied in one pass as in
+     * insertAll; in any balanced mode the sorted items are removed one at
+     * a time.
+     * @param items the items to remove.
+     * @return the number of items removed.
+     */
+    @SuppressWarnings( "unchecked" )
+    public int deleteAll( Collection<? extends AnyType> items )
+    {
+        settle( );
+        if( multiset )
+        {
+            long before = total;
+            for( AnyType x : items )
+                remove( x );
+            return (int) ( before - total );
+        }
+        Object [ ] sorted = items.toArray( );
+        int n = sortDistinct( sorted );
+        int before = count;
+        if( balance == Balance.NONE )
+            applySorted( sorted, n, false );
+        else
+            for( int i = 0; i < n; i++ )
+                remove( (AnyType) sorted[ i ] );
+        return before - count;
+    }
+
+    /**
+     * Find the smallest item in the tree.
+     * @return smallest item or null if empty.
+     */
+    public AnyType findMin( )
+    {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        if( metrics == null )
+            return findMin( root ).element;
+        long start = System.nanoTime( );
+        AnyType x = findMin( root ).element;
+        metrics.record( TreeMetrics.Operation.FIND_MIN, System.nanoTime( ) - start, 0, -1 );
+        return x;
+    }
+
+    /**
+     * Find the largest item in the tree.
+     * @return the largest item of null if empty.
+     */
+    public AnyType findMax( )
+    {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        if( metrics == null )
+            return findMax( root ).element;
+        long start = System.nanoTime( );
+        AnyType x = findMax( root ).element;
+        metrics.record( TreeMetrics.Operation.FIND_MAX, System.nanoTime( ) - start, 0, -1 );
+        return x;
+    }
+
+    /**
+     * Find an item in the tree.
+     * @param x the item to search for.
+     * @return true if not found.
+     */
+    public boolean contains( AnyType x )
+    {
+        if( metrics == null )
+            return lookup( x );
+        long start = System.nanoTime( );
+        int compares;
+        boolean found;
+        if( balance == Balance.SPLAY )
+        {
+            found = lookup( x );
+            compares = probes;
+        }
+        else
+        {
+            compares = probe( x, root );
+            found = compares > 0;
+            compares = Math.abs( compares );
+        }
+        metrics.record( TreeMetrics.Operation.CONTAINS, System.nanoTime( ) - start, compares,
+                        found ? compares - 1 : -1 );
+        return found;
+    }
+
+    /**
+     * Make the tree logically empty.
+     */
+    public void makeEmpty( )
+    {
+        settle( );
+        root = null;
+        count = 0;
+        total = 0;
+    }
+
+    /**
+     * Test if the tree is logically empty.
+     * @return true if empty, false otherwise.
+     */
+    public boolean isEmpty( )
+    {
+        return root == null;
+    }
+
+    /**
+     * Print the tree contents in sorted order.
+     */
+    public void printTree( )
+    {
+        if( isEmpty( ) )
+            System.out.println( "Empty tree" );
+        for( AnyType x : this )
+            System.out.println( x );
+    }
+
+    /**
+     * Add x to the set; same as insert, but reports whether it was added.
+     * In a multiset an occurrence is counted even if x was present.
+     * @param x the item to add.
+     * @return true if x was not already present.
+     */
+    @Override
+    public boolean add( AnyType x )
+    {
+        int before = count;
+        insert( x );
+        return count != before;
+    }
+
+    /**
+     * Remove o from the set; same as remove( x ), but reports whether
+     * it was present. In a multiset one occurrence of o is removed.
+     * @param o the item to remove.
+     * @return true if it was present.
+     * @throws ClassCastException if o cannot be compared with the items.
+     */
+    @Override
+    @SuppressWarnings( "unchecked" )
+    public boolean remove( Object o )
+    {
+        long before = total;
+        remove( (AnyType) o, false );
+        return total != before;
+    }
+
+    /**
+     * Test if o is in the set; same as contains( x ).
+     * @throws ClassCastException if o cannot be compared with the items.
+     */
+    @Override
+    @SuppressWarnings( "unchecked" )
+    public boolean contains( Object o )
+    {
+        return contains( (AnyType) o );
+    }
+
+    /**
+     * Add a batch of items in one sorted pass, as insertAll does.
+     * @return true if any item was added.
+     */
+    @Override
+    public boolean addAll( Collection<? extends AnyType> items )
+    {
+        return insertAll( items ) > 0;
+    }
+
+    /**
+     * Remove a batch of items in one sorted pass, as deleteAll does.
+     * In a multiset every occurrence of each item is removed.
+     * @return true if any item was removed.
+     * @throws ClassCastException if an item cannot be compared with the items.
+     */
+    @Override
+    @SuppressWarnings( "unchecked" )
+    public boolean removeAll( Collection<?> items )
+    {
+        if( multiset )
+        {
+            boolean changed = false;
+            for( Object x : items )
+                changed |= removeAllOccurrences( (AnyType) x ) > 0;
+            return changed;
+        }
+        return deleteAll( (Collection<? extends AnyType>) items ) > 0;
+    }
+
+    /**
+     * Return the number of items in the set; same as nodeCount( ).
+     */
+    @Override
+    public int size( )
+    {
+        return count;
+    }
+
+    /**
+     * Remove every item; same as makeEmpty( ).
+     */
+    @Override
+    public void clear( )
+    {
+        makeEmpty( );
+    }
+
+    /**
+     * Return null: items are in their natural order.
+     */
+    @Override
+    public Comparator<? super AnyType> comparator( )
+    {
+        return null;
+    }
+
+    /**
+     * Return the smallest item.
+     * @throws NoSuchElementException if the set is empty.
+     */
+    @Override
+    public AnyType first( )
+    {
+        if( isEmpty( ) )
+            throw new NoSuchElementException( );
+        return findMin( root ).element;
+    }
+
+    /**
+     * Return the largest item.
+     * @throws NoSuchElementException if the set is empty.
+     */
+    @Override
+    public AnyType last( )
+    {
+        if( isEmpty( ) )
+            throw new NoSuchElementException( );
+        return findMax( root ).element;
+    }
+
+    /**
+     * Return the largest item less than or equal to x, or null if none.
+     */
+    @Override
+    public AnyType floor( AnyType x )
+    {
+        return nearest( x, false, true );
+    }
+
+    /**
+     * Return the smallest item greater than or equal to x, or null if none.
+     */
+    @Override
+    public AnyType ceiling( AnyType x )
+    {
+        return nearest( x, true, true );
+    }
+
+    /**
+     * Return the smallest item strictly greater than x, or null if none.
+     */
+    @Override
+    public AnyType higher( AnyType x )
+    {
+        return nearest( x, true, false );
+    }
+
+    /**
+     * Return the largest item strictly less than x, or null if none.
+     */
+    @Override
+    public AnyType lower( AnyType x )
+    {
+        return nearest( x, false, false );
+    }
+
+    /**
+     * Remove and return the smallest item, or return null if empty.
+     */
+    @Override
+    public AnyType pollFirst( )
+    {
+        if( isEmpty( ) )
+            return null;
+        AnyType x = findMin( root ).element;
+        remove( x, true );
+        return x;
+    }
+
+    /**
+     * Remove and return the largest item, or return null if empty.
+     */
+    @Override
+    public AnyType pollLast( )
+    {
+        if( isEmpty( ) )
+            return null;
+        AnyType x = findMax( root ).element;
+        remove( x, true );
+        return x;
+    }
+
+    /**
+     * Return a view of the set in descending order.
+     */
+    @Override
+    public NavigableSet<AnyType> descendingSet( )
+    {
+        return new SubSet( null, true, null, true, true );
+    }
+
+    /**
+     * Return a view of the items from from to to. The view reads and
+     * writes this tree; adding an item outside its range throws
+     * IllegalArgumentException.
+     * @throws IllegalArgumentException if from is greater than to.
+     */
+    @Override
+    public NavigableSet<AnyType> subSet( AnyType from, boolean fromInclusive, AnyType to, boolean toInclusive )
+    {
+        return range( Objects.requireNonNull( from ), fromInclusive, Objects.requireNonNull( to ), toInclusive, false );
+    }
+
+    /**
+     * Return a view of the items less than (or equal to) to.
+     */
+    @Override
+    public NavigableSet<AnyType> headSet( AnyType to, boolean inclusive )
+    {
+        return range( null, true, Objects.requireNonNull( to ), inclusive, false );
+    }
+
+    /**
+     * Return a view of the items greater than (or equal to) from.
+     */
+    @Override
+    public NavigableSet<AnyType> tailSet( AnyType from, boolean inclusive )
+    {
+        return range( Objects.requireNonNull( from ), inclusive, null, true, false );
+    }
+
+    /**
+     * Return a view of the items in [from, to).
+     */
+    @Override
+    public SortedSet<AnyType> subSet( AnyType from, AnyType to )
+    {
+        return subSet( from, true, to, false );
+    }
+
+    /**
+     * Return a view of the items less than to.
+     */
+    @Override
+    public SortedSet<AnyType> headSet( AnyType to )
+    {
+        return headSet( to, false );
+    }
+
+    /**
+     * Return a view of the items greater than or equal to from.
+     */
+    @Override
+    public SortedSet<AnyType> tailSet( AnyType from )
+    {
+        return tailSet( from, true );
+    }
+
+    /**
+     * Return an iterator over the items in sorted order.
+     * The iterator keeps the current path in an O(height) stack. Its
+     * remove( ) removes the last item returned and seeks past it again in
+     * O(height); changing the tree any other way while iterating gives
+     * unspecified results.
+     * @return the iterator.
+     */
+    @Override
+    public Iterator<AnyType> iterator( )
+    {
+        return new TreeIterator( null, true, null, true, false );
+    }
+
+    /**
+     * Return an iterator over the items from largest to smallest.
+     * @return the iterator.
+     */
+    @Override
+    public Iterator<AnyType> descendingIterator( )
+    {
+        return new TreeIterator( null, true, null, true, true );
+    }
+
+    /**
+     * Return the items in [lo, hi) in sorted order. Each iteration
+     * seeks to lo in O(height) and then visits only the items in the
+     * range, so a scan costs O(log n + k) on a balanced tree.
+     * @param lo the smallest item to include.
+     * @param hi the first item beyond the range.
+     * @return the items in the range.
+     */
+    public Iterable<AnyType> subRange( AnyType lo, AnyType hi )
+    {
+        return ( ) -> new TreeIterator( lo, true, hi, false, false );
+    }
+
+    /**
+     * Return a spliterator over the items in sorted order. It splits at
+     * subtree boundaries, and the cached subtree sizes keep every part
+     * exactly SIZED, so parallel streams divide the work evenly.
+     * @return the spliterator.
+     */
+    @Override
+    public Spliterator<AnyType> spliterator( )
+    {
+        return new TreeSpliterator( root, count );
+    }
+
+    /**
+     * Return a sequential stream of the items in sorted order;
+     * call parallel( ) on it to process subtrees concurrently.
+     * @return the stream.
+     */
+    public Stream<AnyType> stream( )
+    {
+        return StreamSupport.stream( spliterator( ), false );
+    }
+
+    /**
+     * Return an immutable copy of the tree packed into an array in
+     * Eytzinger order, for trees that are read far more than changed.
+     * Later changes to this tree do not affect the copy. The copy holds
+     * each distinct item once, without a multiset's counts.
+     * @return the frozen copy.
+     */
+    public FrozenBinarySearchTree<AnyType> freeze( )
+    {
+        return new FrozenBinarySearchTree<>( iterator( ), count );
+    }
+    
+    /**
+     * Return the number of items in the tree.
+     * The count is maintained by insert and remove, so this is O(1).
+     * @return the number of items.
+     */
+    public int nodeCount() {
+    	return count;
+    }
+
+    /**
+     * Return the number of occurrences of x: in a multiset, how many times
+     * it was inserted less how many times it was removed; otherwise 1 if
+     * it is present. This is one descent, and never splays.
+     * @param x the item to count.
+     * @return the number of occurrences, or 0 if x is absent.
+     */
+    public int count( AnyType x )
+    {
+        for( BinaryNode<AnyType> t = root; t != null; )
+        {
+            int compareResult = x.compareTo( t.element );
+            if( compareResult == 0 )
+                return t.occurrences;   // Match
+            t = compareResult < 0 ? t.left : t.right;
+        }
+        return 0;
+    }
+
+    /**
+     * Return the number of occurrences of all items; in a multiset each
+     * item counts as many times as it occurs, otherwise this equals
+     * nodeCount( ). The total is maintained by insert and remove, so this
+     * is O(1).
+     * @return the number of occurrences.
+     */
+    public long totalCount( )
+    {
+        return total;
+    }
+
+    /**
+     * Return true if the tree is a multiset, which counts duplicates.
+     */
+    public boolean isMultiset( )
+    {
+        return multiset;
+    }
+
+    /**
+     * Return the balancing policy the tree was constructed with.
+     * @return the policy.
+     */
+    public Balance balance( )
+    {
+        return balance;
+    }
+
+    /**
+     * Return the height of the tree, which is cached, so this is O(1).
+     * @return the height, or -1 if empty.
+     */
+    public int height( )
+    {
+        settle( );
+        return height( root );
+    }
+
+    /**
+     * Reshape the tree into one of minimal height, with the Day-Stout-Warren
+     * algorithm, in O(n) time and O(1) extra space. The nodes are reused,
+     * except that nodes shared with a copy are copied first.
+     */
+    public void rebalance( )
+    {
+        settle( );
+        root = rebuild( root );
+    }
+
+    /**
+     * Start recording operation metrics, if not already recording.
+     * While enabled, insert, remove, contains, findMin and findMax are
+     * counted and timed, and every rotation is counted. When disabled,
+     * each of these costs one extra null check.
+     * @return the metrics, which are kept until disableMetrics( ).
+     */
+    public TreeMetrics enableMetrics( )
+    {
+        if( metrics == null )
+            metrics = new TreeMetrics( this );
+        return metrics;
+    }
+
+    /**
+     * Stop recording operation metrics and discard them.
+     */
+    public void disableMetrics( )
+    {
+        metrics = null;
+    }
+    
+    /**
+     * Find the item with exactly k smaller items in the tree.
+     * @param k the rank of the item, from 0 to nodeCount( ) - 1.
+     * @return the k-th smallest item, counting from zero.
+     * @throws IndexOutOfBoundsException if k is out of range.
+     */
+    public AnyType select( int k )
+    {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        if( k < 0 || k >= count )
+            throw new IndexOutOfBoundsException( "k = " + k + ", size = " + count );
+        return select( k, root ).element;
+    }
+
+    /**
+     * Count the items in the tree that are smaller than x.
+     * x itself need not be present.
+     * @param x the item to rank.
+     * @return the number of items smaller than x.
+     */
+    public int rank( AnyType x )
+    {
+        return rank( x, root );
+    }
+
+    /**
+     * Find the median item; for an even count this is the lower median.
+     * @return the median item.
+     */
+    public AnyType median( )
+    {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        return select( ( count - 1 ) / 2, root ).element;
+    }
+    
+    public boolean isFull() {
+    	if(isEmpty()) {
+    		return true;
+    	}else {
+    		return check(Comparison.FULL, root, root);
+    	}
+    }
+    
+    public boolean compareStructure(BinarySearchTree<AnyType> t2) {
+    	settle( );
+    	t2.settle( );
+    	if(this.isEmpty() && t2.root == null) {
+    		return true;
+		}else if(this.isEmpty() && t2.root != null || !this.isEmpty() && t2.root == null) {
+			return false;
+		}else {
+			return root.shape == t2.root.shape && size(root) == size(t2.root)
+			    && check(Comparison.STRUCTURE, root, t2.root);
+		}    	
+    }
+    
+    /**
+     * Test if t2 holds the same items as this tree in the same shape.
+     * Unlike equals( Object ), which compares the trees as sets, this
+     * tells apart trees whose items were inserted in different orders.
+     * @param t2 the tree to compare against.
+     * @return true if the trees are equal in items and shape.
+     */
+    public boolean structurallyEquals(BinarySearchTree<AnyType> t2) {
+    	settle( );
+    	t2.settle( );
+    	if(this.isEmpty() && t2.root == null) {
+    		return true;
+		}else if((this.isEmpty() && t2.root != null) || (!this.isEmpty() && t2.root == null)) {
+			return false;
+		}else if(root.element.compareTo(t2.root.element) == 0) {
+			return root.digest == t2.root.digest && count == t2.count && total == t2.total
+			    && check(Comparison.EQUALS, root, t2.root);
+		}else {
+			return false;
+		}
+    }
+    
+    /**
+     * Return a hash of the tree's items and shape. Trees that are equal
+     * in the sense of structurallyEquals( ) have the same digest, and trees that are
+     * not almost surely differ, so replicas can be compared by exchanging
+     * digests alone. The digest is cached and costs O(1).
+     * @return the digest; EMPTY_HASH for an empty tree.
+     */
+    public long digest( )
+    {
+        settle( );
+        return isEmpty( ) ? EMPTY_HASH : root.digest;
+    }
+
+    /**
+     * Locate the differences between this tree and t2. Both trees are
+     * walked together from the root, descending only into subtree pairs
+     * whose digests differ, so d differences cost O(d height).
+     * A path names a node by the turns taken from the root, 'L' or 'R';
+     * the root is the empty path. A position is reported, and not
+     * descended into, where the trees hold different items or only one
+     * of them has a node. A position whose item occurs a different number
+     * of times is reported too, and its subtrees are still compared.
+     * @param t2 the tree to compare against.
+     * @return the paths of the differing positions, in preorder.
+     */
+    public List<String> diff( BinarySearchTree<AnyType> t2 )
+    {
+        settle( );
+        t2.settle( );
+        List<String> paths = new ArrayList<>( );
+        BinaryNode<AnyType> none = nullToSentinel( null );
+        Deque<BinaryNode<AnyType>> todo = new ArrayDeque<>( );
+        Deque<String> todoPaths = new ArrayDeque<>( );
+        todo.push( nullToSentinel( t2.root ) );
+        todo.push( nullToSentinel( root ) );
+        todoPaths.push( "" );
+        while( !todoPaths.isEmpty( ) )
+        {
+            BinaryNode<AnyType> a = todo.pop( );
+            BinaryNode<AnyType> b = todo.pop( );
+            String path = todoPaths.pop( );
+            if( a == b || hash( a, false ) == hash( b, false ) )
+                continue;   // Same subtree
+            if( a == none || b == none || a.element.compareTo( b.element ) != 0 )
+            {
+                paths.add( path );
+                continue;
+            }
+            if( a.occurrences != b.occurrences )
+                paths.add( path );
+            todo.push( nullToSentinel( b.right ) );
+            todo.push( nullToSentinel( a.right ) );
+            todoPaths.push( path + 'R' );
+            todo.push( nullToSentinel( b.left ) );
+            todo.push( nullToSentinel( a.left ) );
+            todoPaths.push( path + 'L' );
+        }
+        return paths;
+    }
+
+    /**
+     * Create a copy of the tree in O(1) time.
+     * The copy shares every node with this tree; from then on each tree
+     * copies the nodes on its own update paths, so neither sees the
+     * other's later changes.
+     * @return the copy, or null if the tree is empty.
+     */
+    @SuppressWarnings( "unchecked" )
+    public BinarySearchTree<Integer> copy() {
+    	settle( );
+    	if(isEmpty()) {
+    		return null;
+    	}else {
+    		BinarySearchTree<AnyType> t2 = new BinarySearchTree<>( balance, multiset );
+    		t2.root = root;
+    		t2.count = count;
+    		t2.total = total;
+    		owner = new Object( );   // Existing nodes are now shared
+    		return (BinarySearchTree<Integer>) (BinarySearchTree<?>) t2;
+    	}
+    }
+    
+    @SuppressWarnings( "unchecked" )
+    public BinarySearchTree<Integer> mirror() {
+    	settle( );
+    	if(isEmpty()) {
+    		return null;
+    	}else {
+    		BinarySearchTree<AnyType> t2 = new BinarySearchTree<>( Balance.NONE, multiset );
+    		t2.root = mirror(root, t2.owner);
+    		t2.count = count;
+    		t2.total = total;
+    		return (BinarySearchTree<Integer>) (BinarySearchTree<?>) t2;
+    	}
+    }
+    
+    /**
+     * Return a view of the mirror image of this tree.
+     * Unlike mirror( ), nothing is copied: the view reads this tree's nodes
+     * with left and right swapped, and reflects later changes to the tree.
+     * @return the mirror view.
+     */
+    public MirrorView mirrorView( )
+    {
+        return new MirrorView( );
+    }
+    
+    /**
+     * Test if this tree is the mirror image of a mirror view; that is,
+     * if it structurally equals the tree the view was taken of.
+     * @param view the view to compare against.
+     * @return true if this tree mirrors the view.
+     */
+    public boolean isMirror( MirrorView view )
+    {
+        return structurallyEquals( view.tree( ) );
+    }
+    
+    public boolean isMirror(BinarySearchTree<AnyType> t2) {
+    	settle( );
+    	t2.settle( );
+    	if(this.isEmpty() && t2.root == null) {
+    		return true;
+		}else if((this.isEmpty() && t2.root != null) || (!this.isEmpty() && t2.root == null)) {
+			return false;
+		}else if(root.element.compareTo(t2.root.element) == 0) {
+			return root.digest == t2.root.mirrorDigest && count == t2.count
+			    && check(Comparison.MIRROR, root, t2.root);
+		}else {
+			return false;
+		}
+    }
+    
+    /**
+     * Perform a single right rotation at the node holding x.
+     * Nothing is done if x is absent or has no left child; cursor( x )
+     * reports both as errors, and can chain rotations without searching.
+     * @param x the item whose node is rotated.
+     */
+    public void rotateRight(AnyType x) {
+    	if( isEmpty( ) ) {
+            throw new UnderflowException( );
+        }
+    	settle( );
+    	root = rotateRight(x, root);
+    }
+    
+    /**
+     * Perform a single left rotation at the node holding x.
+     * Nothing is done if x is absent or has no right child.
+     * @param x the item whose node is rotated.
+     */
+    public void rotateLeft(AnyType x) {
+    	if( isEmpty( ) ) {
+            throw new UnderflowException( );
+        }
+    	settle( );
+    	root = rotateLeft(x, root);
+    }
+
+    /**
+     * Return a cursor on the node holding x. The search is done once;
+     * the cursor can then move to the parent or a child and rotate in
+     * O(1) per step. See Cursor for when it is closed.
+     * @param x the item to search for.
+     * @return the cursor.
+     * @throws NoSuchElementException if x is not in the tree.
+     */
+    public Cursor cursor( AnyType x )
+    {
+        settle( );
+        if( isEmpty( ) )
+            throw new NoSuchElementException( "item not found: " + x );
+
+        Cursor c = new Cursor( );
+        int compareResult;
+        while( ( compareResult = x.compareTo( c.node.element ) ) != 0 )
+        {
+            BinaryNode<AnyType> next = compareResult < 0 ? c.node.left : c.node.right;
+            if( next == null )
+            {
+                c.close( );
+                throw new NoSuchElementException( "item not found: " + x );
+            }
+            c.down( next );
+        }
+        return c;
+    }
+    
+    public void printLevels ( )
+    {
+        if( isEmpty( ) ) {
+            System.out.println( "Empty tree" );
+        }else {        	
+        	printLevels (root, false);
+        }        	
+    }
+
+    /**
+     * Visit the items level by level, left to right. The sink receives
+     * each item with its depth, the root being at depth 0, and is told
+     * when each level ends. Nothing is allocated per node.
+     * @param sink the receiver of items and level boundaries.
+     */
+    public void levelOrder( LevelSink<? super AnyType> sink )
+    {
+        levelOrder( root, false, sink );
+    }
+
+    /**
+     * Write the tree one level per line, in the format of printLevels.
+     * The writer is neither flushed nor closed; pass a buffered writer
+     * to dump large trees at I/O speed.
+     * @param out the destination.
+     * @throws IOException if out fails.
+     */
+    public void writeLevels( Writer out ) throws IOException
+    {
+        writeLevels( root, false, out );
+    }
+
+    /**
+     * Internal method to build a subtree of minimal height from the next
+     * n items of a sorted iterator. The recursion depth is O(log n).
+     * @param items supplies the items in increasing order.
+     * @param n the number of items in the subtree.
+     * @return the root of the new subtree.
+     */
+    private BinaryNode<AnyType> build( Iterator<? extends AnyType> items, int n )
+    {
+        if( n == 0 )
+            return null;
+
+        int leftSize = ( n - 1 ) / 2;
+        BinaryNode<AnyType> lt = build( items, leftSize );
+        BinaryNode<AnyType> t = new BinaryNode<>( items.next( ), lt, null, owner );
+        t.right = build( items, n - 1 - leftSize );
+        update( t );
+        return t;
+    }
+
+    /**
+     * Sort an array of items in place and move the distinct ones to
+     * the front.
+     * @param items the items.
+     * @return the number of distinct items.
+     */
+    @SuppressWarnings( "unchecked" )
+    private static <AnyType extends Comparable<? super AnyType>> int sortDistinct( Object [ ] items )
+    {
+        Arrays.sort( items );
+
+        int n = 0;
+        for( int i = 0; i < items.length; i++ )
+            if( n == 0 || ( (AnyType) items[ i ] ).compareTo( (AnyType) items[ n - 1 ] ) != 0 )
+                items[ n++ ] = items[ i ];
+        return n;
+    }
+
+    /**
+     * Internal method to insert or remove sorted, distinct items in one
+     * pass, without rebalancing. The search path stays recorded between
+     * items. bound[ d ] is the path index of the nearest ancestor of
+     * path[ d ] whose left subtree holds it, or -1 if there is none; an
+     * item belongs below path[ d ] exactly when it is smaller than that
+     * ancestor's item, because it is larger than every item before it.
+     * A node is updated when it is popped, after all changes below it.
+     * @param items the items, in increasing order.
+     * @param n the number of items to apply.
+     * @param inserting true to insert the items, false to remove them.
+     */
+    @SuppressWarnings( "unchecked" )
+    private void applySorted( Object [ ] items, int n, boolean inserting )
+    {
+        int [ ] bound = new int[ path.length ];
+        int depth = 0;
+
+        for( int i = 0; i < n; i++ )
+        {
+            AnyType x = (AnyType) items[ i ];
+            while( depth > 0 && bound[ depth - 1 ] >= 0
+                   && x.compareTo( path[ bound[ depth - 1 ] ].element ) >= 0 )
+            {
+                update( path[ --depth ] );
+                path[ depth ] = null;
+            }
+
+                // Search again from the lowest node left on the path,
+                // which is still writable and keeps its bound
+            BinaryNode<AnyType> p = root;
+            BinaryNode<AnyType> resumed = null;
+            int b = -1;
+            if( depth > 0 )
+            {
+                p = resumed = path[ --depth ];
+                path[ depth ] = null;
+                b = bound[ depth ];
+            }
+
+            int compareResult = 0;
+            while( p != null && ( compareResult = x.compareTo( p.element ) ) != 0 )
+            {
+                bound = pushBound( bound, depth, b );
+                p = pushWritable( p, depth );
+                if( depth == 0 )
+                    root = p;
+                if( compareResult < 0 )
+                    b = depth;
+                depth++;
+                p = compareResult < 0 ? p.left : p.right;
+            }
+            if( p == resumed && p != null )
+                update( p );    // It holds x, so it was not pushed again
+
+            if( inserting )
+            {
+                if( p != null )
+                    continue;   // Duplicate; do nothing
+
+                BinaryNode<AnyType> leaf = new BinaryNode<>( x, null, null, owner );
+                count++;
+                total++;
+                if( depth == 0 )
+                    root = leaf;
+                else if( compareResult < 0 )
+                    path[ depth - 1 ].left = leaf;
+                else
+                    path[ depth - 1 ].right = leaf;
+                continue;
+            }
+
+            if( p == null )
+                continue;   // Item not found; do nothing
+
+            int twoChild = -1;
+            if( p.left != null && p.right != null ) // Two children
+            {
+                twoChild = depth;
+                bound = pushBound( bound, depth, b );
+                p = pushWritable( p, depth );
+                if( depth == 0 )
+                    root = p;
+                depth++;
+                BinaryNode<AnyType> min = p.right;
+                while( min.left != null )
+                {
+                    bound = pushBound( bound, depth, b );
+                    min = pushWritable( min, depth );
+                    b = depth++;
+                    min = min.left;
+                }
+                p.element = min.element;
+                p = min;
+            }
+
+            count--;
+            total--;
+            BinaryNode<AnyType> replacement = ( p.left != null ) ? p.left : p.right;
+            if( depth == 0 )
+                root = replacement;
+            else if( path[ depth - 1 ].left == p )
+                path[ depth - 1 ].left = replacement;
+            else
+                path[ depth - 1 ].right = replacement;
+
+                // The node that took over the successor's item bounds its
+                // right subtree from below by a larger item now, so the
+                // next search must resume no lower than that node
+            if( twoChild >= 0 )
+                while( depth > twoChild + 1 )
+                {
+                    update( path[ --depth ] );
+                    path[ depth ] = null;
+                }
+        }
+
+        while( depth > 0 )
+        {
+            update( path[ --depth ] );
+            path[ depth ] = null;
+        }
+    }
+
+    /**
+     * Record b at the given depth of bound, growing it if needed.
+     * @return bound, or its replacement.
+     */
+    private static int [ ] pushBound( int [ ] bound, int depth, int b )
+    {
+        if( depth == bound.length )
+            bound = Arrays.copyOf( bound, depth * 2 );
+        bound[ depth ] = b;
+        return bound;
+    }
+
+    /**
+     * Remove x from the tree, recording metrics if they are enabled.
+     * @param x the item to remove.
+     * @param every true to remove every occurrence of x in a multiset,
+     *        false to remove one.
+     */
+    private void remove( AnyType x, boolean every )
+    {
+        settle( );
+        if( metrics == null )
+        {
+            root = remove( x, root, every );
+            return;
+        }
+        long before = total;
+        long start = System.nanoTime( );
+        root = remove( x, root, every );
+        metrics.record( TreeMetrics.Operation.REMOVE, System.nanoTime( ) - start, probes,
+                        total < before ? probes - 1 : -1 );
+    }
+
+    /**
+     * Internal method to insert into a subtree.
+     * The search path is recorded so it can be retraced without recursion.
+     * @param x the item to insert.
+     * @param t the node that roots the subtree.
+     * @return the new root of the subtree.
+     */
+    private BinaryNode<AnyType> insert( AnyType x, BinaryNode<AnyType> t )
+    {
+        int depth = 0;
+        int compareResult = 0;
+
+        for( BinaryNode<AnyType> p = t; p != null; p = compareResult < 0 ? p.left : p.right )
+        {
+            compareResult = x.compareTo( p.element );
+            if( compareResult == 0 )
+            {
+                probes = depth + 1;
+                if( multiset )
+                    return recount( depth, p, 1 );
+                if( balance == Balance.SPLAY )
+                    return splay( depth, p );
+                clearPath( depth );
+                return t;  // Duplicate; do nothing
+            }
+            p = pushWritable( p, depth++ );
+        }
+        probes = depth;
+
+        BinaryNode<AnyType> n = new BinaryNode<>( x, null, null, owner );
+        count++;
+        total++;
+        if( depth == 0 )
+            return n;
+
+        BinaryNode<AnyType> parent = path[ depth - 1 ];
+        if( compareResult < 0 )
+            parent.left = n;
+        else
+            parent.right = n;
+        if( balance == Balance.SPLAY )
+            return splay( depth, n );
+        t = retrace( depth, n, n, true );
+        if( balance == Balance.SCAPEGOAT && depth > Math.log( count ) / LOG_INVERSE_ALPHA )
+            t = rebuildScapegoat( x, t );
+        return t;
+    }
+
+    /**
+     * Internal method to remove from a subtree.
+     * A node with two children takes over the smallest item of its
+     * right subtree, and the node that held that item is unlinked.
+     * @param x the item to remove.
+     * @param t the node that roots the subtree.
+     * @param every true to remove every occurrence of x in a multiset,
+     *        false to remove one.
+     * @return the new root of the subtree.
+     */
+    private BinaryNode<AnyType> remove( AnyType x, BinaryNode<AnyType> t, boolean every )
+    {
+        int depth = 0;
+        BinaryNode<AnyType> p = t;
+
+        while( p != null )
+        {
+            int compareResult = x.compareTo( p.element );
+            if( compareResult == 0 )
+                break;
+            p = pushWritable( p, depth++ );
+            p = compareResult < 0 ? p.left : p.right;
+        }
+        if( p == null )
+        {
+            probes = depth;
+            if( balance == Balance.SPLAY && depth > 0 )
+            {
+                BinaryNode<AnyType> last = path[ --depth ];
+                path[ depth ] = null;
+                return splay( depth, last );
+            }
+            clearPath( depth );
+            return t;   // Item not found; do nothing
+        }
+        probes = depth + 1;
+        if( !every && p.occurrences > 1 )
+            return recount( depth, p, -1 );
+        total -= p.occurrences;
+        if( balance == Balance.SPLAY )
+        {
+            count--;
+            return removeRoot( splay( depth, p ) );
+        }
+
+        if( p.left != null && p.right != null ) // Two children
+        {
+            p = pushWritable( p, depth++ );
+            BinaryNode<AnyType> min = p.right;
+            while( min.left != null )
+            {
+                min = pushWritable( min, depth++ );
+                min = min.left;
+            }
+            p.element = min.element;
+            p.occurrences = min.occurrences;
+            p = min;
+        }
+
+        count--;
+        BinaryNode<AnyType> replacement = ( p.left != null ) ? p.left : p.right;
+        if( depth == 0 )
+            return replacement;
+        return retrace( depth, p, replacement, true );
+    }
+
+    /**
+     * Internal method to change the number of occurrences of the item in
+     * node p, which stays in the tree. The shape does not change, so the
+     * nodes above p are only updated; in SPLAY mode p is splayed first.
+     * @param depth the number of ancestors of p, recorded in path; each
+     *        is writable and is the parent of the next.
+     * @param p the node whose count changes.
+     * @param delta the change, which must leave the count positive.
+     * @return the new root of the subtree at path[ 0 ].
+     */
+    private BinaryNode<AnyType> recount( int depth, BinaryNode<AnyType> p, int delta )
+    {
+        total += delta;
+        if( balance == Balance.SPLAY )
+        {
+            p = writable( splay( depth, p ) );
+            depth = 0;
+        }
+        else
+        {
+            p = pushWritable( p, depth );
+            path[ depth ] = null;
+        }
+        p.occurrences += delta;
+        update( p );
+        return retrace( depth, p, p, false );
+    }
+
+    /**
+     * Internal method to find the nearest item to x on one side in a
+     * single descent: the last node passed on the way down where the
+     * search turned away from that side is the answer.
+     * @param x the item to search for.
+     * @param above true for items greater than x, false for items less.
+     * @param inclusive true if x itself is an answer.
+     * @return the nearest item, or null if there is none.
+     */
+    private AnyType nearest( AnyType x, boolean above, boolean inclusive )
+    {
+        AnyType best = null;
+        for( BinaryNode<AnyType> t = root; t != null; )
+        {
+            int compareResult = x.compareTo( t.element );
+            if( compareResult == 0 && inclusive )
+                return t.element;   // Match
+            if( above ? compareResult < 0 : compareResult > 0 )
+            {
+                best = t.element;
+                t = above ? t.left : t.right;
+            }
+            else
+                t = above ? t.right : t.left;
+        }
+        return best;
+    }
+
+    /**
+     * Internal method to count the items below a bound.
+     * @param x the bound.
+     * @param inclusive true to count x itself if present.
+     * @return the number of items less than x, or at most x if inclusive.
+     */
+    private int countBelow( AnyType x, boolean inclusive )
+    {
+        int below = 0;
+        for( BinaryNode<AnyType> t = root; t != null; )
+        {
+            int compareResult = x.compareTo( t.element );
+            if( compareResult < 0 || compareResult == 0 && !inclusive )
+                t = t.left;
+            else
+            {
+                below += size( t.left ) + 1;
+                if( compareResult == 0 )
+                    break;
+                t = t.right;
+            }
+        }
+        return below;
+    }
+
+    /**
+     * Internal method to make a range view; a null bound is no bound.
+     * @throws IllegalArgumentException if lo is greater than hi.
+     */
+    private NavigableSet<AnyType> range( AnyType lo, boolean loInclusive,
+                                         AnyType hi, boolean hiInclusive, boolean descending )
+    {
+        if( lo != null && hi != null && lo.compareTo( hi ) > 0 )
+            throw new IllegalArgumentException( "fromKey > toKey" );
+        return new SubSet( lo, loInclusive, hi, hiInclusive, descending );
+    }
+
+    /**
+     * Internal method to find the smallest item in a subtree.
+     * @param t the node that roots the subtree.
+     * @return node containing the smallest item.
+     */
+    private BinaryNode<AnyType> findMin( BinaryNode<AnyType> t )
+    {
+        if( t != null )
+            while( t.left != null )
+                t = t.left;
+
+        return t;
+    }
+
+    /**
+     * Internal method to find the largest item in a subtree.
+     * @param t the node that roots the subtree.
+     * @return node containing the largest item.
+     */
+    private BinaryNode<AnyType> findMax( BinaryNode<AnyType> t )
+    {
+        if( t != null )
+            while( t.right != null )
+                t = t.right;
+
+        return t;
+    }
+
+    /**
+     * Internal method to find an item in the tree. In SPLAY mode the node
+     * holding x, or the last node visited if x is absent, is splayed.
+     * @param x is item to search for.
+     * @return true if found.
+     */
+    private boolean lookup( AnyType x )
+    {
+        if( balance != Balance.SPLAY )
+            return contains( x, root );
+        settle( );
+
+        int depth = 0;
+        BinaryNode<AnyType> p = root;
+        int compareResult;
+        while( p != null && ( compareResult = x.compareTo( p.element ) ) != 0 )
+        {
+            p = pushWritable( p, depth++ );
+            p = compareResult < 0 ? p.left : p.right;
+        }
+        if( p != null )
+        {
+            probes = depth + 1;
+            root = splay( depth, p );
+            return true;
+        }
+        probes = depth;
+        if( depth > 0 )
+        {
+            p = path[ --depth ];
+            path[ depth ] = null;
+            root = splay( depth, p );
+        }
+        return false;
+    }
+
+    /**
+     * Internal method to find an item in a subtree.
+     * @param x is item to search for.
+     * @param t the node that roots the subtree.
+     * @return node containing the matched item.
+     */
+    private boolean contains( AnyType x, BinaryNode<AnyType> t )
+    {
+        while( t != null )
+        {
+            int compareResult = x.compareTo( t.element );
+
+            if( compareResult < 0 )
+                t = t.left;
+            else if( compareResult > 0 )
+                t = t.right;
+            else
+                return true;    // Match
+        }
+        return false;
+    }
+
+    /**
+     * Internal method to find an item in a subtree, counting the compareTo
+     * calls for the metrics. Like contains, it writes no field, so trees
+     * shared as snapshots may still be probed concurrently.
+     * @param x is item to search for.
+     * @param t the node that roots the subtree.
+     * @return the number of compareTo calls if x was found, else minus
+     *         that number.
+     */
+    private int probe( AnyType x, BinaryNode<AnyType> t )
+    {
+        int depth = 0;
+        while( t != null )
+        {
+            int compareResult = x.compareTo( t.element );
+            depth++;
+
+            if( compareResult < 0 )
+                t = t.left;
+            else if( compareResult > 0 )
+                t = t.right;
+            else
+                return depth;   // Match
+        }
+        return -depth;
+    }
+
+    /**
+     * Internal method to find the item of a given rank in a subtree.
+     * @param k the rank of the item within the subtree.
+     * @param t the node that roots the subtree.
+     * @return node containing the item.
+     */
+    private BinaryNode<AnyType> select( int k, BinaryNode<AnyType> t )
+    {
+        for( ; ; )
+        {
+            int leftSize = size( t.left );
+            if( k < leftSize )
+                t = t.left;
+            else if( k > leftSize )
+            {
+                k -= leftSize + 1;
+                t = t.right;
+            }
+            else
+                return t;
+        }
+    }
+
+    /**
+     * Internal method to count the items smaller than x in a subtree.
+     * @param x the item to rank.
+     * @param t the node that roots the subtree.
+     * @return the number of items smaller than x.
+     */
+    private int rank( AnyType x, BinaryNode<AnyType> t )
+    {
+        int smaller = 0;
+        while( t != null )
+        {
+            int compareResult = x.compareTo( t.element );
+
+            if( compareResult < 0 )
+                t = t.left;
+            else if( compareResult > 0 )
+            {
+                smaller += size( t.left ) + 1;
+                t = t.right;
+            }
+            else
+                return smaller + size( t.left );
+        }
+        return smaller;
+    }
+    
+    /**
+     * Internal method to build the mirror image of a subtree,
+     * in parallel if it is large.
+     * @param t the node that roots the subtree.
+     * @param newOwner the identity of the tree that will own the new nodes.
+     * @return the root of the new subtree.
+     */
+    private BinaryNode<AnyType> mirror( BinaryNode<AnyType> t, Object newOwner )
+    {
+        if( size( t ) < PARALLEL_THRESHOLD )
+            return copy( t, true, newOwner );
+        return ForkJoinPool.commonPool( ).invoke( new MirrorTask( t, newOwner ) );
+    }
+
+    /**
+     * Internal method to run one of the whole-tree comparisons,
+     * in parallel if the subtree is large.
+     * @param kind the comparison to make.
+     * @param t1 the node that roots the first subtree.
+     * @param t2 the node that roots the second subtree; ignored for FULL.
+     * @return the result of the comparison.
+     */
+    private boolean check( Comparison kind, BinaryNode<AnyType> t1, BinaryNode<AnyType> t2 )
+    {
+        if( size( t1 ) < PARALLEL_THRESHOLD )
+            return checkSequentially( kind, t1, t2 );
+        return ForkJoinPool.commonPool( ).invoke( new CheckTask( kind, t1, t2 ) );
+    }
+
+    /**
+     * Internal method to run a comparison on one thread, using an explicit
+     * stack of node pairs instead of recursion, so that a degenerate
+     * subtree does not deepen the call stack.
+     * @return the result of the comparison.
+     */
+    private boolean checkSequentially( Comparison kind, BinaryNode<AnyType> t1, BinaryNode<AnyType> t2 )
+    {
+        Deque<BinaryNode<AnyType>> todo = new ArrayDeque<>( );
+        todo.push( t1 );
+        todo.push( kind == Comparison.FULL ? t1 : t2 );
+        while( !todo.isEmpty( ) )
+        {
+            BinaryNode<AnyType> b = todo.pop( );
+            BinaryNode<AnyType> a = todo.pop( );
+            if( a == b && ( kind == Comparison.STRUCTURE || kind == Comparison.EQUALS ) )
+                continue;   // Shared subtree; equal to itself
+            if( !matches( kind, a, b ) )
+                return false;
+
+                // matches( ) has checked that b has a child wherever a has
+            if( a.left != null )
+            {
+                todo.push( a.left );
+                todo.push( kind == Comparison.FULL ? a.left
+                         : kind == Comparison.MIRROR ? b.right : b.left );
+            }
+            if( a.right != null )
+            {
+                todo.push( a.right );
+                todo.push( kind == Comparison.FULL ? a.right
+                         : kind == Comparison.MIRROR ? b.left : b.right );
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Internal method to make the part of a comparison that concerns only
+     * the two nodes themselves, not their subtrees.
+     * @return true if the nodes and their children match.
+     */
+    private boolean matches( Comparison kind, BinaryNode<AnyType> t1, BinaryNode<AnyType> t2 )
+    {
+        switch( kind )
+        {
+          case FULL:
+            return ( t1.left == null ) == ( t1.right == null );
+          case STRUCTURE:
+            return t1.shape == t2.shape
+                && ( t1.left == null ) == ( t2.left == null )
+                && ( t1.right == null ) == ( t2.right == null );
+          case EQUALS:
+            return t1.digest == t2.digest
+                && sameElement( t1.left, t2.left ) && sameElement( t1.right, t2.right );
+          default:
+            return t1.digest == t2.mirrorDigest
+                && sameElement( t1.left, t2.right ) && sameElement( t1.right, t2.left );
+        }
+    }
+
+    /**
+     * Return true if both nodes are null, or both hold equal items.
+     */
+    private boolean sameElement( BinaryNode<AnyType> t1, BinaryNode<AnyType> t2 )
+    {
+        if( t1 == null || t2 == null )
+            return t1 == t2;
+        return t1.element.compareTo( t2.element ) == 0;
+    }
+
+    /**
+     * Internal method to copy a subtree, optionally swapping every
+     * left and right child, using an explicit stack instead of recursion.
+     * @param t the node that roots the subtree.
+     * @param mirrored true to build the mirror image.
+     * @param newOwner the identity of the tree that will own the new nodes.
+     * @return the root of the new subtree.
+     */
+    private BinaryNode<AnyType> copy( BinaryNode<AnyType> t, boolean mirrored, Object newOwner )
+    {
+        if( t == null )
+            return null;
+
+        List<BinaryNode<AnyType>> created = new ArrayList<>( t.size );
+        Deque<BinaryNode<AnyType>> todo = new ArrayDeque<>( );
+        BinaryNode<AnyType> top = new BinaryNode<>( t.element, null, null, newOwner );
+        top.occurrences = t.occurrences;
+        todo.push( t );
+        todo.push( top );
+        while( !todo.isEmpty( ) )
+        {
+            BinaryNode<AnyType> temp = todo.pop( );
+            BinaryNode<AnyType> src = todo.pop( );
+            created.add( temp );
+            if( src.left != null )
+            {
+                BinaryNode<AnyType> n = new BinaryNode<>( src.left.element, null, null, newOwner );
+                n.occurrences = src.left.occurrences;
+                if( mirrored )
+                    temp.right = n;
+                else
+                    temp.left = n;
+                todo.push( src.left );
+                todo.push( n );
+            }
+            if( src.right != null )
+            {
+                BinaryNode<AnyType> n = new BinaryNode<>( src.right.element, null, null, newOwner );
+                n.occurrences = src.right.occurrences;
+                if( mirrored )
+                    temp.left = n;
+                else
+                    temp.right = n;
+                todo.push( src.right );
+                todo.push( n );
+            }
+        }
+
+            // Every node was created after its parent, so walking the list
+            // backwards updates children before the nodes above them
+        for( int i = created.size( ) - 1; i >= 0; i-- )
+            update( created.get( i ) );
+        return top;
+    }
+    
+    /**
+     * Internal method to rotate right at the node holding x.
+     * Heights on the path back to t are recomputed; no rebalancing
+     * is done, so a manual rotation may leave an AVL tree out of balance.
+     * @param x the item whose node is rotated; it must be present.
+     * @param t the node that roots the subtree.
+     * @return the new root of the subtree.
+     */
+    private BinaryNode<AnyType> rotateRight(AnyType x, BinaryNode<AnyType> t) {
+    	int depth = descend( x, t );
+    	if( depth < 0 )
+    		return t;   // x is absent
+    	BinaryNode<AnyType> p = depth == 0 ? t : child( path[ depth - 1 ], x );
+    	if(p.left == null) {
+    		//Through exception
+    		clearPath( depth );
+    		return t;
+    	}
+    	return retrace( depth, p, rotateWithLeftChild( p ), false );
+    }
+    
+    /**
+     * Internal method to rotate left at the node holding x.
+     * @param x the item whose node is rotated; it must be present.
+     * @param t the node that roots the subtree.
+     * @return the new root of the subtree.
+     */
+    private BinaryNode<AnyType> rotateLeft(AnyType x, BinaryNode<AnyType> t) {
+    	int depth = descend( x, t );
+    	if( depth < 0 )
+    		return t;   // x is absent
+    	BinaryNode<AnyType> p = depth == 0 ? t : child( path[ depth - 1 ], x );
+    	if(p.right == null) {
+    		//Through exception
+    		clearPath( depth );
+    		return t;
+    	}
+    	return retrace( depth, p, rotateWithRightChild( p ), false );
+    }
+    
+    /**
+     * Internal method to splay x to the root of the subtree at path[ 0 ]
+     * with zig-zig and zig-zag steps, and a final zig if x started at odd
+     * depth. Each step is two of the rotations that rotateRight and
+     * rotateLeft perform, which recompute the cached fields of every node
+     * they move, so the ancestors need no other update.
+     * @param depth the number of ancestors of x, recorded in path; each
+     *        is writable and is the parent of the next, and the last is
+     *        the parent of x.
+     * @param x the node to splay.
+     * @return the new root of the subtree, which is x or a copy of it.
+     */
+    private BinaryNode<AnyType> splay( int depth, BinaryNode<AnyType> x )
+    {
+        while( depth >= 2 )
+        {
+            BinaryNode<AnyType> parent = path[ --depth ];
+            BinaryNode<AnyType> grand = path[ --depth ];
+            path[ depth + 1 ] = path[ depth ] = null;
+
+            if( grand.left == parent )
+                x = parent.left == x ? rotateWithLeftChild( rotateWithLeftChild( grand ) )
+                                     : doubleWithLeftChild( grand );
+            else
+                x = parent.right == x ? rotateWithRightChild( rotateWithRightChild( grand ) )
+                                      : doubleWithRightChild( grand );
+
+            if( depth > 0 )
+            {
+                BinaryNode<AnyType> above = path[ depth - 1 ];
+                if( above.left == grand )
+                    above.left = x;
+                else
+                    above.right = x;
+            }
+        }
+        if( depth == 1 )
+        {
+            BinaryNode<AnyType> parent = path[ 0 ];
+            path[ 0 ] = null;
+            x = parent.left == x ? rotateWithLeftChild( parent ) : rotateWithRightChild( parent );
+        }
+        return x;
+    }
+
+    /**
+     * Internal method to remove the root of a subtree by splaying the
+     * largest item of its left subtree up to join the right subtree.
+     * @param t the root to remove.
+     * @return the new root of the subtree.
+     */
+    private BinaryNode<AnyType> removeRoot( BinaryNode<AnyType> t )
+    {
+        if( t.left == null )
+            return t.right;
+
+        int depth = 0;
+        BinaryNode<AnyType> max = t.left;
+        while( max.right != null )
+        {
+            max = pushWritable( max, depth++ );
+            max = max.right;
+        }
+        BinaryNode<AnyType> left = writable( splay( depth, max ) );
+        left.right = t.right;
+        update( left );
+        return left;
+    }
+
+    /**
+     * Internal method to find the scapegoat for the node holding x, which
+     * is too deep: the deepest ancestor whose child on the path to x holds
+     * more than ALPHA of its nodes. That ancestor's subtree is rebuilt,
+     * and the nodes above it are updated.
+     * @param x the item just inserted.
+     * @param t the node that roots the subtree; its cached fields are current.
+     * @return the new root of the subtree.
+     */
+    private BinaryNode<AnyType> rebuildScapegoat( AnyType x, BinaryNode<AnyType> t )
+    {
+        int depth = 0;
+        int scapegoat = -1;
+        int compareResult;
+        for( BinaryNode<AnyType> p = t; ( compareResult = x.compareTo( p.element ) ) != 0; )
+        {
+            BinaryNode<AnyType> next = compareResult < 0 ? p.left : p.right;
+            if( size( next ) > ALPHA * p.size )
+                scapegoat = depth;
+            p = pushWritable( p, depth++ );
+            p = next;
+        }
+        if( scapegoat < 0 )
+        {
+            clearPath( depth );
+            return t;
+        }
+
+        BinaryNode<AnyType> old = path[ scapegoat ];
+        Arrays.fill( path, scapegoat, depth, null );
+        BinaryNode<AnyType> sub = rebuild( old );
+        return scapegoat == 0 ? sub : retrace( scapegoat, old, sub, false );
+    }
+
+    /**
+     * Internal method to reshape a subtree into one of minimal height
+     * with the Day-Stout-Warren algorithm. Right rotations unwind the
+     * subtree into a vine, a right-leaning path in sorted order, hung from
+     * a pseudo-root; rounds of left rotations then fold the vine in half
+     * until it is a tree. A node rotated down by the fold keeps its
+     * subtree from then on, so it is updated there and then; only the
+     * nodes left on the final right spine are updated afterwards.
+     * @param t the node that roots the subtree; its size is current.
+     * @return the new root of the subtree.
+     */
+    private BinaryNode<AnyType> rebuild( BinaryNode<AnyType> t )
+    {
+        if( t == null )
+            return null;
+
+        int n = t.size;
+        BinaryNode<AnyType> pseudo = new BinaryNode<>( null, null, t, owner );
+        BinaryNode<AnyType> tail = pseudo;
+        for( BinaryNode<AnyType> rest = t; rest != null; )
+        {
+            rest = writable( rest );
+            tail.right = rest;
+            if( rest.left == null )
+            {
+                tail = rest;
+                rest = rest.right;
+            }
+            else
+            {
+                BinaryNode<AnyType> left = writable( rest.left );
+                rest.left = left.right;
+                left.right = rest;
+                rest = left;
+            }
+        }
+
+            // Make the partial bottom level, then fold the perfect remainder
+        int leaves = n + 1 - Integer.highestOneBit( n + 1 );
+        compress( pseudo, leaves );
+        for( int m = n - leaves; m > 1; m /= 2 )
+            compress( pseudo, m / 2 );
+
+            // Update the right spine bottom up, without a stack
+        int spine = 0;
+        for( BinaryNode<AnyType> p = pseudo.right; p != null; p = p.right )
+            spine++;
+        for( ; spine > 0; spine-- )
+        {
+            BinaryNode<AnyType> p = pseudo.right;
+            for( int i = 1; i < spine; i++ )
+                p = p.right;
+            update( p );
+        }
+        return pseudo.right;
+    }
+
+    /**
+     * Internal method to rotate left at every other node of the right
+     * spine below scanner, for count rotations. Each node rotated down
+     * becomes the left child of its old right child.
+     * Every node on the spine is writable.
+     */
+    private void compress( BinaryNode<AnyType> scanner, int count )
+    {
+        for( int i = 0; i < count; i++ )
+        {
+            BinaryNode<AnyType> child = scanner.right;
+            scanner.right = child.right;
+            scanner = scanner.right;
+            child.right = scanner.left;
+            scanner.left = child;
+            update( child );
+        }
+    }
+
+    /**
+     * Internal method to record the path to the node holding x.
+     * @param x the item to search for.
+     * @param t the node that roots the subtree.
+     * @return the number of proper ancestors of the node, now in path,
+     *         or -1 if x is absent, in which case path is left empty.
+     */
+    private int descend( AnyType x, BinaryNode<AnyType> t )
+    {
+        int depth = 0;
+        int compareResult;
+        while( ( compareResult = x.compareTo( t.element ) ) != 0 )
+        {
+            t = pushWritable( t, depth++ );
+            t = compareResult < 0 ? t.left : t.right;
+            if( t == null )
+            {
+                clearPath( depth );
+                return -1;
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Return the child of t on the side where x belongs.
+     */
+    private BinaryNode<AnyType> child( BinaryNode<AnyType> t, AnyType x )
+    {
+        return x.compareTo( t.element ) < 0 ? t.left : t.right;
+    }
+
+    /**
+     * Return t if this tree owns it, else an owned copy of t.
+     * Only owned nodes may be changed in place.
+     */
+    private BinaryNode<AnyType> writable( BinaryNode<AnyType> t )
+    {
+        return t.owner == owner ? t : new BinaryNode<>( t, owner );
+    }
+
+    /**
+     * Record a writable version of t at the given depth of the search path,
+     * linking it under the node recorded just above it.
+     * @return the writable node.
+     */
+    private BinaryNode<AnyType> pushWritable( BinaryNode<AnyType> t, int depth )
+    {
+        BinaryNode<AnyType> w = writable( t );
+        if( w != t && depth > 0 )
+        {
+            BinaryNode<AnyType> parent = path[ depth - 1 ];
+            if( parent.left == t )
+                parent.left = w;
+            else
+                parent.right = w;
+        }
+        push( w, depth );
+        return w;
+    }
+
+    /**
+     * Internal method to walk back up the recorded search path after the
+     * child old of path[ depth - 1 ] has been replaced by sub. Each node on
+     * the path is relinked and updated, and rebalanced if requested.
+     * Every node on the path is writable.
+     * @param depth the number of nodes recorded in path.
+     * @param old the child being replaced; it may equal sub.
+     * @param sub the new subtree.
+     * @param rebalance true to apply the balance policy, false to only update.
+     * @return the new root of the subtree at path[ 0 ].
+     */
+    private BinaryNode<AnyType> retrace( int depth, BinaryNode<AnyType> old,
+                                         BinaryNode<AnyType> sub, boolean rebalance )
+    {
+        while( depth > 0 )
+        {
+            BinaryNode<AnyType> p = path[ --depth ];
+            path[ depth ] = null;
+            if( p.left == old )
+                p.left = sub;
+            else
+                p.right = sub;
+            old = p;
+            if( rebalance )
+                sub = balance( p );
+            else
+            {
+                update( p );
+                sub = p;
+            }
+        }
+        return sub;
+    }
+
+    /**
+     * Record t at the given depth of the search path, growing it if needed.
+     */
+    private void push( BinaryNode<AnyType> t, int depth )
+    {
+        if( depth == path.length )
+            path = Arrays.copyOf( path, depth * 2 );
+        path[ depth ] = t;
+    }
+
+    /**
+     * Close the open cursor, if any, which brings the cached fields of
+     * the nodes above it up to date.
+     */
+    private void settle( )
+    {
+        if( cursor != null )
+            cursor.close( );
+    }
+
+    /**
+     * Drop the first depth entries of the search path.
+     */
+    private void clearPath( int depth )
+    {
+        Arrays.fill( path, 0, depth, null );
+    }
+
+    /**
+     * Rotate binary tree node with left child.
+     * Update heights, then return new root.
+     * Both nodes are made writable first.
+     */
+    private BinaryNode<AnyType> rotateWithLeftChild( BinaryNode<AnyType> k2 )
+    {
+        if( metrics != null )
+            metrics.rotation( );
+        k2 = writable( k2 );
+        BinaryNode<AnyType> k1 = writable( k2.left );
+        k2.left = k1.right;
+        k1.right = k2;
+        update( k2 );
+        update( k1 );
+        return k1;
+    }
+
+    /**
+     * Rotate binary tree node with right child.
+     * Update heights, then return new root.
+     * Both nodes are made writable first.
+     */
+    private BinaryNode<AnyType> rotateWithRightChild( BinaryNode<AnyType> k1 )
+    {
+        if( metrics != null )
+            metrics.rotation( );
+        k1 = writable( k1 );
+        BinaryNode<AnyType> k2 = writable( k1.right );
+        k1.right = k2.left;
+        k2.left = k1;
+        update( k1 );
+        update( k2 );
+        return k2;
+    }
+
+    /**
+     * Double rotate binary tree node: first left child
+     * with its right child; then node k3 with new left child.
+     * Update heights, then return new root.
+     */
+    private BinaryNode<AnyType> doubleWithLeftChild( BinaryNode<AnyType> k3 )
+    {
+        k3.left = rotateWithRightChild( k3.left );
+        return rotateWithLeftChild( k3 );
+    }
+
+    /**
+     * Double rotate binary tree node: first right child
+     * with its left child; then node k1 with new right child.
+     * Update heights, then return new root.
+     */
+    private BinaryNode<AnyType> doubleWithRightChild( BinaryNode<AnyType> k1 )
+    {
+        k1.right = rotateWithLeftChild( k1.right );
+        return rotateWithRightChild( k1 );
+    }
+
+    /**
+     * Internal method to restore the balance condition at t.
+     * Recomputes the node's height in every mode; in AVL mode an
+     * imbalance of two is repaired with a single or double rotation.
+     * @param t the node that roots the subtree; its children are balanced.
+     * @return the new root of the subtree.
+     */
+    private BinaryNode<AnyType> balance( BinaryNode<AnyType> t )
+    {
+        if( t == null )
+            return t;
+
+        if( balance == Balance.AVL )
+        {
+            if( height( t.left ) - height( t.right ) > ALLOWED_IMBALANCE )
+                if( height( t.left.left ) >= height( t.left.right ) )
+                    return rotateWithLeftChild( t );
+                else
+                    return doubleWithLeftChild( t );
+            else if( height( t.right ) - height( t.left ) > ALLOWED_IMBALANCE )
+                if( height( t.right.right ) >= height( t.right.left ) )
+                    return rotateWithRightChild( t );
+                else
+                    return doubleWithRightChild( t );
+        }
+
+        update( t );
+        return t;
+    }
+
+    /**
+     * Internal method to recompute the cached fields of t from its children.
+     * @param t the node to update.
+     */
+    private void update( BinaryNode<AnyType> t )
+    {
+        t.height = Math.max( height( t.left ), height( t.right ) ) + 1;
+        t.size = size( t.left ) + size( t.right ) + 1;
+        rehash( t );
+    }
+
+    /**
+     * Recompute the cached hashes of t from its item and its children's
+     * hashes. A child's position is part of the hash, so subtrees with
+     * the same items in a different shape hash differently. A count
+     * above 1 is mixed into the item's hash.
+     * @param t the node to rehash.
+     */
+    private static <AnyType> void rehash( BinaryNode<AnyType> t )
+    {
+        long item = mix( t.element.hashCode( ) );
+        if( t.occurrences != 1 )
+            item = mix( item + t.occurrences );
+        t.shape = combine( hash( t.left, true ), hash( t.right, true ), SHAPE_SEED );
+        t.digest = combine( hash( t.left, false ), hash( t.right, false ), item );
+        t.mirrorDigest = combine( t.right == null ? EMPTY_HASH : t.right.mirrorDigest,
+                                  t.left == null ? EMPTY_HASH : t.left.mirrorDigest, item );
+    }
+
+    /**
+     * Return the shape or content hash of subtree t, or EMPTY_HASH, if null.
+     */
+    private static <AnyType> long hash( BinaryNode<AnyType> t, boolean shape )
+    {
+        if( t == null || t == SENTINEL )
+            return EMPTY_HASH;
+        return shape ? t.shape : t.digest;
+    }
+
+    /**
+     * Combine the hashes of a left subtree, a right subtree and an item.
+     * Each step is a full-avalanche mix, so the result depends on the
+     * order of the arguments.
+     */
+    private static long combine( long left, long right, long item )
+    {
+        long h = mix( left + LEFT_SEED );
+        h = mix( h ^ ( right + RIGHT_SEED ) );
+        return mix( h ^ item );
+    }
+
+    /**
+     * The 64-bit finalizer of MurmurHash3.
+     */
+    private static long mix( long h )
+    {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Return t, or SENTINEL, if null; ArrayDeque does not hold nulls.
+     */
+    @SuppressWarnings( "unchecked" )
+    private static <AnyType> BinaryNode<AnyType> nullToSentinel( BinaryNode<AnyType> t )
+    {
+        return t == null ? (BinaryNode<AnyType>) SENTINEL : t;
+    }
+    
+    /**
+     * Internal method to print a subtree level by level
+     * through a buffered writer on System.out.
+     * @param t the node that roots the subtree.
+     * @param mirrored true to list right children before left ones.
+     */
+    private void printLevels( BinaryNode<AnyType> t, boolean mirrored )
+    {
+        Writer out = new OutputStreamWriter( System.out );
+        try
+        {
+            writeLevels( t, mirrored, out );
+            out.flush( );
+        }
+        catch( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Internal method to write a subtree one level per line.
+     * @param t the node that roots the subtree.
+     * @param mirrored true to list right children before left ones.
+     * @param out the destination.
+     */
+    private void writeLevels( BinaryNode<AnyType> t, boolean mirrored, Writer out ) throws IOException
+    {
+        String newline = System.lineSeparator( );
+        try
+        {
+            levelOrder( t, mirrored, new LevelSink<AnyType>( )
+            {
+                public void visit( AnyType x, int depth )
+                {
+                    try
+                    {
+                        out.write( String.valueOf( x ) );
+                        out.write( ' ' );
+                    }
+                    catch( IOException e )
+                    {
+                        throw new UncheckedIOException( e );
+                    }
+                }
+
+                public void endLevel( int depth )
+                {
+                    try
+                    {
+                        out.write( newline );
+                    }
+                    catch( IOException e )
+                    {
+                        throw new UncheckedIOException( e );
+                    }
+                }
+            } );
+        }
+        catch( UncheckedIOException e )
+        {
+            throw e.getCause( );
+        }
+    }
+
+    /**
+     * Internal method to visit a subtree level by level.
+     * The queue is a ring buffer that only ever holds about two levels,
+     * and grows by doubling.
+     * @param t the node that roots the subtree.
+     * @param mirrored true to visit right children before left ones.
+     * @param sink the receiver of items and level boundaries.
+     */
+    private void levelOrder( BinaryNode<AnyType> t, boolean mirrored, LevelSink<? super AnyType> sink )
+    {
+        if( t == null )
+            return;
+
+        @SuppressWarnings( "unchecked" )
+        BinaryNode<AnyType> [ ] queue = (BinaryNode<AnyType> [ ]) new BinaryNode<?>[ 16 ];
+        int head = 0;
+        int size = 1;
+        queue[ 0 ] = t;
+        for( int depth = 0; size > 0; depth++ )
+        {
+            for( int levelSize = size; levelSize > 0; levelSize-- )
+            {
+                BinaryNode<AnyType> n = queue[ head ];
+                queue[ head ] = null;
+                head = ( head + 1 ) & ( queue.length - 1 );
+                size--;
+                sink.visit( n.element, depth );
+
+                if( size + 2 > queue.length )
+                {
+                    queue = unwrap( queue, head, size );
+                    head = 0;
+                }
+                BinaryNode<AnyType> first = mirrored ? n.right : n.left;
+                BinaryNode<AnyType> second = mirrored ? n.left : n.right;
+                if( first != null )
+                    queue[ ( head + size++ ) & ( queue.length - 1 ) ] = first;
+                if( second != null )
+                    queue[ ( head + size++ ) & ( queue.length - 1 ) ] = second;
+            }
+            sink.endLevel( depth );
+        }
+    }
+
+    /**
+     * Copy a wrapped ring buffer into a new one of twice the capacity.
+     */
+    private static <T> T [ ] unwrap( T [ ] queue, int head, int size )
+    {
+        T [ ] bigger = Arrays.copyOf( queue, queue.length * 2 );
+        for( int i = 0; i < size; i++ )
+            bigger[ i ] = queue[ ( head + i ) & ( queue.length - 1 ) ];
+        Arrays.fill( bigger, size, bigger.length, null );
+        return bigger;
+    }
+
+    /**
+     * Return the height of node t, or -1, if null.
+     * @param t the node that roots the subtree.
+     */
+    private int height( BinaryNode<AnyType> t )
+    {
+        return t == null ? -1 : t.height;
+    }
+
+    /**
+     * Return the number of nodes in the subtree rooted at t, or 0, if null.
+     * @param t the node that roots the subtree.
+     */
+    private int size( BinaryNode<AnyType> t )
+    {
+        return t == null ? 0 : t.size;
+    }
+    
+    /**
+     * Receiver for levelOrder.
+     */
+    public interface LevelSink<AnyType>
+    {
+        /**
+         * Called for each item, level by level and left to right.
+         * @param x the item.
+         * @param depth the depth of its node; the root is at depth 0.
+         */
+        void visit( AnyType x, int depth );
+
+        /**
+         * Called after the last item of each level.
+         * @param depth the depth of the level just finished.
+         */
+        void endLevel( int depth );
+    }
+
+    // The whole-tree comparisons that CheckTask can run
+    private enum Comparison
+    {
+        FULL, STRUCTURE, EQUALS, MIRROR
+    }
+
+    /**
+     * Fork/join task for a whole-tree comparison. Matching node pairs are
+     * walked in a loop: at each pair with two child pairs the smaller one
+     * is forked and the larger one followed, so a task's stack stays
+     * shallow even on a degenerate tree and each fork halves the work.
+     */
+    private class CheckTask extends RecursiveTask<Boolean>
+    {
+        CheckTask( Comparison kind, BinaryNode<AnyType> t1, BinaryNode<AnyType> t2 )
+        {
+            this.kind = kind;
+            this.t1 = t1;
+            this.t2 = t2;
+        }
+
+        @Override
+        protected Boolean compute( )
+        {
+            List<CheckTask> forked = new ArrayList<>( );
+            boolean result = true;
+            BinaryNode<AnyType> a = t1;
+            BinaryNode<AnyType> b = t2;
+
+            while( a != null )
+            {
+                    // Identical subtrees are equal, but FULL passes the
+                    // same node twice, so it must never take the shortcut
+                if( size( a ) < PARALLEL_THRESHOLD
+                        || a == b && ( kind == Comparison.STRUCTURE || kind == Comparison.EQUALS ) )
+                {
+                    result = checkSequentially( kind, a, b );
+                    break;
+                }
+                if( !matches( kind, a, b ) )
+                {
+                    result = false;
+                    break;
+                }
+
+                    // Child pairs: a's left and right with b's matching children
+                BinaryNode<AnyType> b1 = kind == Comparison.FULL ? a.left
+                                       : kind == Comparison.MIRROR ? b.right : b.left;
+                BinaryNode<AnyType> b2 = kind == Comparison.FULL ? a.right
+                                       : kind == Comparison.MIRROR ? b.left : b.right;
+                if( a.left == null )
+                {
+                    a = a.right;
+                    b = b2;
+                }
+                else if( a.right == null )
+                {
+                    a = a.left;
+                    b = b1;
+                }
+                else if( a.left.size < a.right.size )
+                {
+                    CheckTask task = new CheckTask( kind, a.left, b1 );
+                    task.fork( );
+                    forked.add( task );
+                    a = a.right;
+                    b = b2;
+                }
+                else
+                {
+                    CheckTask task = new CheckTask( kind, a.right, b2 );
+                    task.fork( );
+                    forked.add( task );
+                    a = a.left;
+                    b = b1;
+                }
+            }
+
+            for( CheckTask task : forked )
+                result &= task.join( );
+            return result;
+        }
+
+        private static final long serialVersionUID = 1L;
+        private final Comparison kind;
+        private final BinaryNode<AnyType> t1;
+        private final BinaryNode<AnyType> t2;
+    }
+
+    /**
+     * Fork/join task building the mirror image of a subtree. A node is
+     * split only when both its subtrees are large; otherwise the subtree
+     * is copied sequentially by the iterative copy.
+     */
+    private class MirrorTask extends RecursiveTask<BinaryNode<AnyType>>
+    {
+        MirrorTask( BinaryNode<AnyType> t, Object newOwner )
+        {
+            this.t = t;
+            this.newOwner = newOwner;
+        }
+
+        @Override
+        protected BinaryNode<AnyType> compute( )
+        {
+            if( size( t.left ) < PARALLEL_THRESHOLD / 2 || size( t.right ) < PARALLEL_THRESHOLD / 2 )
+                return copy( t, true, newOwner );
+
+            MirrorTask leftTask = new MirrorTask( t.left, newOwner );
+            leftTask.fork( );
+            BinaryNode<AnyType> n = new BinaryNode<>( t.element, null, null, newOwner );
+            n.occurrences = t.occurrences;
+            n.left = new MirrorTask( t.right, newOwner ).compute( );
+            n.right = leftTask.join( );
+            update( n );
+            return n;
+        }
+
+        private static final long serialVersionUID = 1L;
+        private final BinaryNode<AnyType> t;
+        private final Object newOwner;
+    }
+
+    /**
+     * A memory-mapped tree of Integers written by save( ). Queries are
+     * answered from the mapped image without building any nodes, and
+     * toTree( ) builds the tree itself.
+     * <p>
+     * The file is little-endian: a 16-byte header (magic, version, item
+     * count, balance policy ordinal), the items in increasing order as
+     * 4-byte ints, then two shape bits per node in preorder, four nodes
+     * to a byte starting at the low bits. Bit 0 is set if the node has a
+     * left child, bit 1 if it has a right child. Because the items are
+     * sorted, contains is a binary search over the image.
+     * <p>
+     * A multiset is saved as version 2, in which the items are followed
+     * by the count of each, in the same order, as 4-byte ints.
+     */
+    public static class Snapshot
+    {
+        private Snapshot( ByteBuffer image, int size, Balance balance, boolean multiset )
+        {
+            this.image = image;
+            this.size = size;
+            this.balance = balance;
+            this.multiset = multiset;
+            shapeOffset = HEADER_BYTES + ( multiset ? 2L : 1L ) * size * Integer.BYTES;
+        }
+
+        /**
+         * Map a snapshot file into memory.
+         * @param file the file written by save( ).
+         * @return the snapshot.
+         * @throws IOException if the file cannot be mapped or is not a snapshot.
+         */
+        public static Snapshot open( Path file ) throws IOException
+        {
+            try( FileChannel in = FileChannel.open( file, StandardOpenOption.READ ) )
+            {
+                long length = in.size( );
+                if( length < HEADER_BYTES || length > Integer.MAX_VALUE )
+                    throw new IOException( "not a tree snapshot: " + file );
+
+                MappedByteBuffer image = in.map( FileChannel.MapMode.READ_ONLY, 0, length );
+                image.order( ORDER );
+                int version = image.getInt( 4 );
+                int size = image.getInt( 8 );
+                int policy = image.getInt( 12 );
+                boolean multiset = version == MULTISET_VERSION;
+                if( image.getInt( 0 ) != MAGIC || version != VERSION && !multiset || size < 0
+                        || policy < 0 || policy >= Balance.values( ).length
+                        || length != HEADER_BYTES + ( multiset ? 2L : 1L ) * size * Integer.BYTES
+                                     + ( size + 3 ) / 4 )
+                    throw new IOException( "not a tree snapshot: " + file );
+                return new Snapshot( image, size, Balance.values( )[ policy ], multiset );
+            }
+        }
+
+        /**
+         * Find an item in the image by binary search.
+         * @param x the item to search for.
+         * @return true if found.
+         */
+        public boolean contains( int x )
+        {
+            return indexOf( x ) >= 0;
+        }
+
+        /**
+         * Return the number of occurrences of an item, as the saved
+         * tree's count( x ) would.
+         * @param x the item to count.
+         * @return the number of occurrences, or 0 if x is absent.
+         */
+        public int count( int x )
+        {
+            int i = indexOf( x );
+            if( i < 0 )
+                return 0;
+            return multiset ? occurrences( i ) : 1;
+        }
+
+        /**
+         * Find the smallest item in the image.
+         * @return smallest item.
+         */
+        public int findMin( )
+        {
+            if( isEmpty( ) )
+                throw new UnderflowException( );
+            return item( 0 );
+        }
+
+        /**
+         * Find the largest item in the image.
+         * @return the largest item.
+         */
+        public int findMax( )
+        {
+            if( isEmpty( ) )
+                throw new UnderflowException( );
+            return item( size - 1 );
+        }
+
+        public boolean isEmpty( )
+        {
+            return size == 0;
+        }
+
+        public int nodeCount( )
+        {
+            return size;
+        }
+
+        /**
+         * Build the saved tree, with its shape and balance policy, in O(n).
+         * Nodes are created in preorder from the shape bits. A node takes
+         * the next sorted item once its left subtree is complete, and the
+         * cached fields are computed in reverse preorder, which visits
+         * every child before its parent.
+         * @return the tree.
+         * @throws IOException if the shape bits do not describe a tree
+         *         of nodeCount( ) nodes.
+         */
+        public BinarySearchTree<Integer> toTree( ) throws IOException
+        {
+            BinarySearchTree<Integer> t = new BinarySearchTree<>( balance, multiset );
+            @SuppressWarnings( "unchecked" )
+            BinaryNode<Integer> [ ] nodes = (BinaryNode<Integer> [ ]) new BinaryNode<?>[ size ];
+            int [ ] pending = new int[ 16 ];    // Nodes waiting for their left subtree
+            int depth = 0;
+            int next = 0;                       // Index of the next sorted item
+            BinaryNode<Integer> parent = null;
+            boolean asLeft = false;
+
+            for( int i = 0; i < size; i++ )
+            {
+                BinaryNode<Integer> n = new BinaryNode<>( null, null, null, t.owner );
+                nodes[ i ] = n;
+                if( i == 0 )
+                    t.root = n;
+                else if( parent == null )
+                    throw new IOException( "corrupt tree snapshot" );
+                else if( asLeft )
+                    parent.left = n;
+                else
+                    parent.right = n;
+
+                if( ( shape( i ) & HAS_LEFT ) != 0 )
+                {
+                    if( depth == pending.length )
+                        pending = Arrays.copyOf( pending, depth * 2 );
+                    pending[ depth++ ] = i;
+                    parent = n;
+                    asLeft = true;
+                    continue;
+                }
+
+                    // n's left subtree is complete: n and every pending
+                    // node up to the first with a right child take items
+                int j = i;
+                take( n, next++ );
+                while( ( shape( j ) & HAS_RIGHT ) == 0 && depth > 0 )
+                {
+                    j = pending[ --depth ];
+                    take( nodes[ j ], next++ );
+                }
+                parent = ( shape( j ) & HAS_RIGHT ) != 0 ? nodes[ j ] : null;
+                asLeft = false;
+            }
+            if( parent != null || depth != 0 || next != size )
+                throw new IOException( "corrupt tree snapshot" );
+
+            for( int i = size - 1; i >= 0; i-- )
+            {
+                t.update( nodes[ i ] );
+                t.total += nodes[ i ].occurrences;
+            }
+            t.count = size;
+            return t;
+        }
+
+        /**
+         * Give node n the item, and in a multiset the count, at position i.
+         */
+        private void take( BinaryNode<Integer> n, int i )
+        {
+            n.element = item( i );
+            if( multiset )
+                n.occurrences = occurrences( i );
+        }
+
+        /**
+         * Find the position of an item in the image by binary search.
+         * @return the position, or -1 if x is absent.
+         */
+        private int indexOf( int x )
+        {
+            int low = 0;
+            int high = size - 1;
+            while( low <= high )
+            {
+                int mid = ( low + high ) >>> 1;
+                int item = item( mid );
+                if( item < x )
+                    low = mid + 1;
+                else if( item > x )
+                    high = mid - 1;
+                else
+                    return mid;     // Match
+            }
+            return -1;
+        }
+
+        private int item( int i )
+        {
+            return image.getInt( HEADER_BYTES + i * Integer.BYTES );
+        }
+
+        private int occurrences( int i )
+        {
+            return image.getInt( HEADER_BYTES + ( size + i ) * Integer.BYTES );
+        }
+
+        private int shape( int i )
+        {
+            int b = image.get( (int) ( shapeOffset + ( i >>> 2 ) ) );
+            return ( b >>> 2 * ( i & 3 ) ) & 3;
+        }
+
+        /**
+         * Write out and clear a buffer.
+         */
+        static void drain( FileChannel out, ByteBuffer buf ) throws IOException
+        {
+            buf.flip( );
+            while( buf.hasRemaining( ) )
+                out.write( buf );
+            buf.clear( );
+        }
+
+        static final int MAGIC = 0x42535431;    // "BST1"
+        static final int VERSION = 1;
+        static final int MULTISET_VERSION = 2;
+        static final int HEADER_BYTES = 16;
+        static final int HAS_LEFT = 1;
+        static final int HAS_RIGHT = 2;
+        static final int BUFFER_BYTES = 1 << 16;
+        static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+        private final ByteBuffer image;
+        private final int size;
+        private final Balance balance;
+        private final boolean multiset;
+        private final long shapeOffset;     // Position of the shape bits
+    }
+
+    /**
+     * A handle on one node of the tree, from cursor( x ). The cursor keeps
+     * the path from the root, so it can move to the parent or a child and
+     * rotate without searching. Each step, and each single or double
+     * rotation, costs O(1): the rotated nodes are updated at once, but the
+     * cached fields of the nodes above are brought up to date only as the
+     * cursor climbs past them, or when it is closed.
+     * <p>
+     * The cursor follows its item through rotations. It is closed by
+     * close( ), by opening another cursor, and by any other operation on
+     * the tree that changes it or reads heights or digests; after that,
+     * every method but close( ) throws IllegalStateException. Invalid moves
+     * and rotations throw and leave the tree unchanged.
+     */
+    public class Cursor implements AutoCloseable
+    {
+        private Cursor( )
+        {
+            node = root;
+            cursor = this;
+        }
+
+        /**
+         * Return the item at the cursor.
+         */
+        public AnyType element( )
+        {
+            checkOpen( );
+            return node.element;
+        }
+
+        /**
+         * Return the depth of the cursor's node; the root is at depth 0.
+         */
+        public int depth( )
+        {
+            checkOpen( );
+            return depth;
+        }
+
+        /**
+         * Test if the cursor's node has a parent, that is, is not the root.
+         */
+        public boolean hasParent( )
+        {
+            checkOpen( );
+            return depth > 0;
+        }
+
+        /**
+         * Test if the cursor's node is the left child of its parent.
+         */
+        public boolean isLeftChild( )
+        {
+            checkOpen( );
+            return depth > 0 && stack[ depth - 1 ].left == node;
+        }
+
+        /**
+         * Test if the cursor's node has a left child.
+         */
+        public boolean hasLeft( )
+        {
+            checkOpen( );
+            return node.left != null;
+        }
+
+        /**
+         * Test if the cursor's node has a right child.
+         */
+        public boolean hasRight( )
+        {
+            checkOpen( );
+            return node.right != null;
+        }
+
+        /**
+         * Move to the parent.
+         * @throws NoSuchElementException at the root.
+         */
+        public void toParent( )
+        {
+            checkOpen( );
+            if( depth == 0 )
+                throw new NoSuchElementException( "root has no parent" );
+            up( );
+        }
+
+        /**
+         * Move to the left child.
+         * @throws NoSuchElementException if there is none.
+         */
+        public void toLeft( )
+        {
+            checkOpen( );
+            if( node.left == null )
+                throw new NoSuchElementException( "no left child" );
+            down( node.left );
+        }
+
+        /**
+         * Move to the right child.
+         * @throws NoSuchElementException if there is none.
+         */
+        public void toRight( )
+        {
+            checkOpen( );
+            if( node.right == null )
+                throw new NoSuchElementException( "no right child" );
+            down( node.right );
+        }
+
+        /**
+         * Rotate right at the cursor's node, which moves down a level
+         * as the right child of its old left child.
+         * @throws IllegalStateException if the node has no left child.
+         */
+        public void rotateRight( )
+        {
+            checkOpen( );
+            if( node.left == null )
+                throw new IllegalStateException( "no left child to rotate up" );
+            BinaryNode<AnyType> sub = rotateWithLeftChild( node );
+            relink( node, sub );
+            stale = depth;
+            push( sub );
+            node = sub.right;
+        }
+
+        /**
+         * Rotate left at the cursor's node, which moves down a level
+         * as the left child of its old right child.
+         * @throws IllegalStateException if the node has no right child.
+         */
+        public void rotateLeft( )
+        {
+            checkOpen( );
+            if( node.right == null )
+                throw new IllegalStateException( "no right child to rotate up" );
+            BinaryNode<AnyType> sub = rotateWithRightChild( node );
+            relink( node, sub );
+            stale = depth;
+            push( sub );
+            node = sub.left;
+        }
+
+        /**
+         * Rotate the cursor's node above its parent with a single rotation.
+         * Repeated calls raise the node a level each.
+         * @throws IllegalStateException at the root.
+         */
+        public void rotateUp( )
+        {
+            checkOpen( );
+            if( depth == 0 )
+                throw new IllegalStateException( "root cannot rotate up" );
+            BinaryNode<AnyType> parent = stack[ --depth ];
+            stack[ depth ] = null;
+            BinaryNode<AnyType> sub = parent.left == node ? rotateWithLeftChild( parent )
+                                                          : rotateWithRightChild( parent );
+            relink( parent, sub );
+            stale = depth;
+            node = sub;
+        }
+
+        /**
+         * Raise the cursor's node two levels with a double rotation. The
+         * node must be an inner grandchild: the right child of a left child,
+         * or the left child of a right child.
+         * @throws IllegalStateException if the node is not an inner grandchild.
+         */
+        public void doubleRotateUp( )
+        {
+            checkOpen( );
+            if( depth < 2 )
+                throw new IllegalStateException( "node has no grandparent" );
+            BinaryNode<AnyType> parent = stack[ depth - 1 ];
+            BinaryNode<AnyType> grand = stack[ depth - 2 ];
+            boolean zigZag = grand.left == parent && parent.right == node;
+            if( !zigZag && !( grand.right == parent && parent.left == node ) )
+                throw new IllegalStateException( "node is not an inner grandchild" );
+
+            depth -= 2;
+            stack[ depth + 1 ] = stack[ depth ] = null;
+            BinaryNode<AnyType> sub = zigZag ? doubleWithLeftChild( grand ) : doubleWithRightChild( grand );
+            relink( grand, sub );
+            stale = depth;
+            node = sub;
+        }
+
+        /**
+         * Bring the cached fields above the cursor up to date and close it.
+         * Closing a closed cursor does nothing.
+         */
+        @Override
+        public void close( )
+        {
+            if( cursor != this )
+                return;
+            for( int i = Math.min( stale, depth + 1 ) - 1; i >= 0; i-- )
+                update( i == depth ? node : stack[ i ] );
+            Arrays.fill( stack, 0, depth, null );
+            node = null;
+            cursor = null;
+        }
+
+        /**
+         * Move to child, a child of the cursor's node. The node is made
+         * writable first, so every node on the stack is writable.
+         */
+        private void down( BinaryNode<AnyType> child )
+        {
+            BinaryNode<AnyType> w = writable( node );
+            relink( node, w );
+            push( w );
+            node = child;
+        }
+
+        /**
+         * Move to the parent, first updating the node being left if it is
+         * out of date; its children are current.
+         */
+        private void up( )
+        {
+            if( stale > depth )
+            {
+                update( node );
+                stale = depth;
+            }
+            node = stack[ --depth ];
+            stack[ depth ] = null;
+        }
+
+        private void push( BinaryNode<AnyType> t )
+        {
+            if( depth == stack.length )
+                stack = Arrays.copyOf( stack, depth * 2 );
+            stack[ depth++ ] = t;
+        }
+
+        /**
+         * Replace old, the child of the top of the stack or the root, by sub.
+         */
+        private void relink( BinaryNode<AnyType> old, BinaryNode<AnyType> sub )
+        {
+            if( old == sub )
+                return;
+            if( depth == 0 )
+                root = sub;
+            else if( stack[ depth - 1 ].left == old )
+                stack[ depth - 1 ].left = sub;
+            else
+                stack[ depth - 1 ].right = sub;
+        }
+
+        private void checkOpen( )
+        {
+            if( cursor != this )
+                throw new IllegalStateException( "cursor is closed" );
+        }
+
+        @SuppressWarnings( "unchecked" )
+        private BinaryNode<AnyType> [ ] stack =
+                (BinaryNode<AnyType> [ ]) new BinaryNode<?>[ INITIAL_PATH_LENGTH ];
+        private int depth;                  // Number of ancestors on the stack
+        private BinaryNode<AnyType> node;   // The cursor's node
+        private int stale;                  // Nodes from the root whose cached fields are out of date
+    }
+
+    /**
+     * A read-only view of the mirror image of the tree, in which every
+     * left and right child is swapped. The view shares the tree's nodes and
+     * swaps each link as it follows it, so queries use O(1) extra memory and
+     * iteration an O(height) stack. Call materialize( ) for a separate tree.
+     */
+    public class MirrorView implements Iterable<AnyType>
+    {
+        /**
+         * Return the tree this is a view of.
+         */
+        public BinarySearchTree<AnyType> tree( )
+        {
+            return BinarySearchTree.this;
+        }
+
+        /**
+         * Find an item in the view. Mirroring only reverses the order,
+         * so this is a search of the underlying tree.
+         * @param x the item to search for.
+         * @return true if found.
+         */
+        public boolean contains( AnyType x )
+        {
+            return BinarySearchTree.this.contains( x );
+        }
+
+        /**
+         * Find the leftmost item of the view, which is the tree's largest.
+         * @return the leftmost item.
+         */
+        public AnyType findMin( )
+        {
+            return BinarySearchTree.this.findMax( );
+        }
+
+        /**
+         * Find the rightmost item of the view, which is the tree's smallest.
+         * @return the rightmost item.
+         */
+        public AnyType findMax( )
+        {
+            return BinarySearchTree.this.findMin( );
+        }
+
+        public boolean isEmpty( )
+        {
+            return root == null;
+        }
+
+        public int nodeCount( )
+        {
+            return count;
+        }
+
+        /**
+         * Return the digest of the view, which equals the digest of
+         * the materialized mirror image. Cached; O(1).
+         */
+        public long digest( )
+        {
+            settle( );
+            return root == null ? EMPTY_HASH : root.mirrorDigest;
+        }
+
+        /**
+         * Test if the view is full; mirroring does not change that.
+         */
+        public boolean isFull( )
+        {
+            return BinarySearchTree.this.isFull( );
+        }
+
+        /**
+         * Iterate over the view in order: left to right in the view,
+         * which is from largest to smallest in the tree.
+         */
+        @Override
+        public Iterator<AnyType> iterator( )
+        {
+            return descendingIterator( );
+        }
+
+        /**
+         * Print the view in order.
+         */
+        public void printTree( )
+        {
+            if( isEmpty( ) )
+                System.out.println( "Empty tree" );
+            for( AnyType x : this )
+                System.out.println( x );
+        }
+
+        /**
+         * Print the view one level per line, left to right.
+         */
+        public void printLevels( )
+        {
+            if( isEmpty( ) )
+                System.out.println( "Empty tree" );
+            else
+                BinarySearchTree.this.printLevels( root, true );
+        }
+
+        /**
+         * Visit the view's items level by level, left to right.
+         * @param sink the receiver of items and level boundaries.
+         */
+        public void levelOrder( LevelSink<? super AnyType> sink )
+        {
+            BinarySearchTree.this.levelOrder( root, true, sink );
+        }
+
+        /**
+         * Test if the view is the mirror image of t2; that is,
+         * if the underlying tree structurally equals t2.
+         * @param t2 the tree to compare against.
+         * @return true if the view mirrors t2.
+         */
+        public boolean isMirror( BinarySearchTree<AnyType> t2 )
+        {
+            return BinarySearchTree.this.structurallyEquals( t2 );
+        }
+
+        /**
+         * Build the mirror image as a separate tree.
+         * @return the same tree that mirror( ) returns.
+         */
+        public BinarySearchTree<Integer> materialize( )
+        {
+            return mirror( );
+        }
+    }
+
+    /**
+     * A view of the items between optional bounds, in either order, backed
+     * by the tree. The bounds are kept in ascending terms, with null for
+     * none; a descending view swaps the direction of every query.
+     */
+    private class SubSet extends AbstractSet<AnyType> implements NavigableSet<AnyType>
+    {
+        SubSet( AnyType lo, boolean loInclusive, AnyType hi, boolean hiInclusive, boolean descending )
+        {
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+        }
+
+        @Override
+        public int size( )
+        {
+            int below = lo == null ? 0 : countBelow( lo, !loInclusive );
+            int upTo = hi == null ? count : countBelow( hi, hiInclusive );
+            return Math.max( upTo - below, 0 );
+        }
+
+        @Override
+        public boolean isEmpty( )
+        {
+            return lowest( ) == null;
+        }
+
+        @Override
+        @SuppressWarnings( "unchecked" )
+        public boolean contains( Object o )
+        {
+            AnyType x = (AnyType) o;
+            return inRange( x ) && BinarySearchTree.this.contains( x );
+        }
+
+        @Override
+        public boolean add( AnyType x )
+        {
+            if( !inRange( x ) )
+                throw new IllegalArgumentException( "item out of range: " + x );
+            return BinarySearchTree.this.add( x );
+        }
+
+        @Override
+        @SuppressWarnings( "unchecked" )
+        public boolean remove( Object o )
+        {
+            return inRange( (AnyType) o ) && BinarySearchTree.this.remove( o );
+        }
+
+        @Override
+        public Iterator<AnyType> iterator( )
+        {
+            return new TreeIterator( lo, loInclusive, hi, hiInclusive, descending );
+        }
+
+        @Override
+        public Iterator<AnyType> descendingIterator( )
+        {
+            return new TreeIterator( lo, loInclusive, hi, hiInclusive, !descending );
+        }
+
+        @Override
+        public NavigableSet<AnyType> descendingSet( )
+        {
+            return new SubSet( lo, loInclusive, hi, hiInclusive, !descending );
+        }
+
+        @Override
+        public Comparator<? super AnyType> comparator( )
+        {
+            return descending ? Collections.reverseOrder( ) : null;
+        }
+
+        @Override
+        public AnyType first( )
+        {
+            AnyType x = descending ? highest( ) : lowest( );
+            if( x == null )
+                throw new NoSuchElementException( );
+            return x;
+        }
+
+        @Override
+        public AnyType last( )
+        {
+            AnyType x = descending ? lowest( ) : highest( );
+            if( x == null )
+                throw new NoSuchElementException( );
+            return x;
+        }
+
+        @Override
+        public AnyType floor( AnyType x )
+        {
+            return descending ? above( x, true ) : below( x, true );
+        }
+
+        @Override
+        public AnyType ceiling( AnyType x )
+        {
+            return descending ? below( x, true ) : above( x, true );
+        }
+
+        @Override
+        public AnyType higher( AnyType x )
+        {
+            return descending ? below( x, false ) : above( x, false );
+        }
+
+        @Override
+        public AnyType lower( AnyType x )
+        {
+            return descending ? above( x, false ) : below( x, false );
+        }
+
+        @Override
+        public AnyType pollFirst( )
+        {
+            AnyType x = descending ? highest( ) : lowest( );
+            if( x != null )
+                BinarySearchTree.this.remove( x, true );
+            return x;
+        }
+
+        @Override
+        public AnyType pollLast( )
+        {
+            AnyType x = descending ? lowest( ) : highest( );
+            if( x != null )
+                BinarySearchTree.this.remove( x, true );
+            return x;
+        }
+
+        @Override
+        public NavigableSet<AnyType> subSet( AnyType from, boolean fromInclusive, AnyType to, boolean toInclusive )
+        {
+            return descending ? narrow( to, toInclusive, from, fromInclusive, true, true )
+                              : narrow( from, fromInclusive, to, toInclusive, true, true );
+        }
+
+        @Override
+        public NavigableSet<AnyType> headSet( AnyType to, boolean inclusive )
+        {
+            return descending ? narrow( to, inclusive, null, true, true, false )
+                              : narrow( null, true, to, inclusive, false, true );
+        }
+
+        @Override
+        public NavigableSet<AnyType> tailSet( AnyType from, boolean inclusive )
+        {
+            return descending ? narrow( null, true, from, inclusive, false, true )
+                              : narrow( from, inclusive, null, true, true, false );
+        }
+
+        @Override
+        public SortedSet<AnyType> subSet( AnyType from, AnyType to )
+        {
+            return subSet( from, true, to, false );
+        }
+
+        @Override
+        public SortedSet<AnyType> headSet( AnyType to )
+        {
+            return headSet( to, false );
+        }
+
+        @Override
+        public SortedSet<AnyType> tailSet( AnyType from )
+        {
+            return tailSet( from, true );
+        }
+
+        /**
+         * Return a view with the given new bounds, in ascending terms,
+         * in place of the current ones where requested.
+         * @throws IllegalArgumentException if a new bound is out of range.
+         */
+        private NavigableSet<AnyType> narrow( AnyType newLo, boolean newLoInclusive,
+                                              AnyType newHi, boolean newHiInclusive,
+                                              boolean setLo, boolean setHi )
+        {
+            if( setLo )
+                checkBound( Objects.requireNonNull( newLo ), newLoInclusive );
+            else
+            {
+                newLo = lo;
+                newLoInclusive = loInclusive;
+            }
+            if( setHi )
+                checkBound( Objects.requireNonNull( newHi ), newHiInclusive );
+            else
+            {
+                newHi = hi;
+                newHiInclusive = hiInclusive;
+            }
+            return range( newLo, newLoInclusive, newHi, newHiInclusive, descending );
+        }
+
+        /**
+         * Check that a new bound does not reach beyond this view's range.
+         */
+        private void checkBound( AnyType x, boolean inclusive )
+        {
+            if( lo != null )
+            {
+                int compareResult = x.compareTo( lo );
+                if( compareResult < 0 || compareResult == 0 && inclusive && !loInclusive )
+                    throw new IllegalArgumentException( "bound out of range: " + x );
+            }
+            if( hi != null )
+            {
+                int compareResult = x.compareTo( hi );
+                if( compareResult > 0 || compareResult == 0 && inclusive && !hiInclusive )
+                    throw new IllegalArgumentException( "bound out of range: " + x );
+            }
+        }
+
+        /**
+         * Return the smallest item in range, or null if none.
+         */
+        private AnyType lowest( )
+        {
+            AnyType x = lo == null ? ( root == null ? null : findMin( root ).element )
+                                   : nearest( lo, true, loInclusive );
+            return x == null || tooHigh( x ) ? null : x;
+        }
+
+        /**
+         * Return the largest item in range, or null if none.
+         */
+        private AnyType highest( )
+        {
+            AnyType x = hi == null ? ( root == null ? null : findMax( root ).element )
+                                   : nearest( hi, false, hiInclusive );
+            return x == null || tooLow( x ) ? null : x;
+        }
+
+        /**
+         * Return the nearest item in range above x, or null if none.
+         */
+        private AnyType above( AnyType x, boolean inclusive )
+        {
+            if( tooLow( x ) )
+                return lowest( );
+            AnyType y = nearest( x, true, inclusive );
+            return y == null || tooHigh( y ) ? null : y;
+        }
+
+        /**
+         * Return the nearest item in range below x, or null if none.
+         */
+        private AnyType below( AnyType x, boolean inclusive )
+        {
+            if( tooHigh( x ) )
+                return highest( );
+            AnyType y = nearest( x, false, inclusive );
+            return y == null || tooLow( y ) ? null : y;
+        }
+
+        private boolean inRange( AnyType x )
+        {
+            return !tooLow( x ) && !tooHigh( x );
+        }
+
+        private boolean tooLow( AnyType x )
+        {
+            if( lo == null )
+                return false;
+            int compareResult = x.compareTo( lo );
+            return compareResult < 0 || compareResult == 0 && !loInclusive;
+        }
+
+        private boolean tooHigh( AnyType x )
+        {
+            if( hi == null )
+                return false;
+            int compareResult = x.compareTo( hi );
+            return compareResult > 0 || compareResult == 0 && !hiInclusive;
+        }
+
+        private final AnyType lo;
+        private final boolean loInclusive;
+        private final AnyType hi;
+        private final boolean hiInclusive;
+        private final boolean descending;
+    }
+
+    /**
+     * In-order iterator over the items between optional bounds, in either
+     * direction. The stack holds the nodes still to be returned on the
+     * path to the next item, so setup is one descent and each step costs
+     * O(1) amortized. remove( ) removes the last item returned from the
+     * tree, then seeks past it again in O(height).
+     */
+    private class TreeIterator implements Iterator<AnyType>
+    {
+        /**
+         * @param lo the lower bound, or null for none.
+         * @param loInclusive true if lo itself is in range.
+         * @param hi the upper bound, or null for none.
+         * @param hiInclusive true if hi itself is in range.
+         * @param descending true to iterate from largest to smallest.
+         */
+        TreeIterator( AnyType lo, boolean loInclusive, AnyType hi, boolean hiInclusive, boolean descending )
+        {
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+            if( descending )
+                seek( hi, hiInclusive );
+            else
+                seek( lo, loInclusive );
+        }
+
+        public boolean hasNext( )
+        {
+            return next != null;
+        }
+
+        public AnyType next( )
+        {
+            if( next == null )
+                throw new NoSuchElementException( );
+            last = next.element;
+            advance( );
+            return last;
+        }
+
+        public void remove( )
+        {
+            if( last == null )
+                throw new IllegalStateException( );
+            BinarySearchTree.this.remove( last, true );
+            seek( last, false );
+            last = null;
+        }
+
+        /**
+         * Stack the path to the first item at or after from in the
+         * direction of iteration, then pop it into next.
+         * @param from where to start, or null for the first item.
+         * @param inclusive true if from itself may be next.
+         */
+        private void seek( AnyType from, boolean inclusive )
+        {
+            stack.clear( );
+            for( BinaryNode<AnyType> t = root; t != null; )
+            {
+                int compareResult = 1;
+                if( from != null )
+                    compareResult = descending ? from.compareTo( t.element ) : t.element.compareTo( from );
+                if( compareResult < 0 || compareResult == 0 && !inclusive )
+                    t = descending ? t.left : t.right;
+                else
+                {
+                    stack.push( t );
+                    t = descending ? t.right : t.left;
+                }
+            }
+            advance( );
+        }
+
+        /**
+         * Pop the next node in range into next, or set it to null.
+         */
+        private void advance( )
+        {
+            next = null;
+            if( stack.isEmpty( ) )
+                return;
+
+            BinaryNode<AnyType> t = stack.pop( );
+            if( descending ? tooLow( t.element ) : tooHigh( t.element ) )
+            {
+                stack.clear( );
+                return;
+            }
+            next = t;
+            for( t = descending ? t.left : t.right; t != null; t = descending ? t.right : t.left )
+                stack.push( t );
+        }
+
+        private boolean tooLow( AnyType x )
+        {
+            if( lo == null )
+                return false;
+            int compareResult = x.compareTo( lo );
+            return compareResult < 0 || compareResult == 0 && !loInclusive;
+        }
+
+        private boolean tooHigh( AnyType x )
+        {
+            if( hi == null )
+                return false;
+            int compareResult = x.compareTo( hi );
+            return compareResult > 0 || compareResult == 0 && !hiInclusive;
+        }
+
+        private final AnyType lo;
+        private final boolean loInclusive;
+        private final AnyType hi;
+        private final boolean hiInclusive;
+        private final boolean descending;
+        private final Deque<BinaryNode<AnyType>> stack = new ArrayDeque<>( );
+        private BinaryNode<AnyType> next;
+        private AnyType last;           // Item for remove( ), or null
+    }
+
+    /**
+     * Spliterator over a subtree in sorted order.
+     * The stack holds pending nodes, top first: each is returned and then
+     * followed by its right subtree, except the node last, which ends the
+     * traversal. trySplit hands the lower pending nodes to a new prefix
+     * spliterator that stops at the split node, and keeps that node's right
+     * subtree. Subtree sizes make both estimates exact. Changing the tree
+     * during traversal gives unspecified results.
+     */
+    private class TreeSpliterator implements Spliterator<AnyType>
+    {
+        TreeSpliterator( BinaryNode<AnyType> t, int size )
+        {
+            est = size;
+            pushLeft( t );
+        }
+
+        private TreeSpliterator( )
+        {
+        }
+
+        @Override
+        public boolean tryAdvance( Consumer<? super AnyType> action )
+        {
+            if( depth == 0 )
+                return false;
+            BinaryNode<AnyType> t = stack[ --depth ];
+            stack[ depth ] = null;
+            if( t != last )
+                pushLeft( t.right );
+            est--;
+            action.accept( t.element );
+            return true;
+        }
+
+        @Override
+        public Spliterator<AnyType> trySplit( )
+        {
+                // Split below the bottom node unless it is this part's last
+            int i = depth > 0 && stack[ 0 ] == last ? 1 : 0;
+            if( i >= depth || stack[ i ].right == null )
+                return null;
+
+            BinaryNode<AnyType> split = stack[ i ];
+            TreeSpliterator prefix = new TreeSpliterator( );
+            prefix.stack = Arrays.copyOfRange( stack, i, Math.max( depth, i + 4 ) );
+            prefix.depth = depth - i;
+            prefix.last = split;
+
+            Arrays.fill( stack, i, depth, null );
+            depth = i;
+            int suffixSize = split.right.size + i;
+            pushLeft( split.right );
+
+            prefix.est = est - suffixSize;
+            est = suffixSize;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize( )
+        {
+            return est;
+        }
+
+        @Override
+        public int characteristics( )
+        {
+            return ORDERED | DISTINCT | SORTED | NONNULL | SIZED | SUBSIZED;
+        }
+
+        @Override
+        public Comparator<? super AnyType> getComparator( )
+        {
+            return null;    // Natural ordering
+        }
+
+        private void pushLeft( BinaryNode<AnyType> t )
+        {
+            for( ; t != null; t = t.left )
+            {
+                if( depth == stack.length )
+                    stack = Arrays.copyOf( stack, depth * 2 );
+                stack[ depth++ ] = t;
+            }
+        }
+
+        @SuppressWarnings( "unchecked" )
+        private BinaryNode<AnyType> [ ] stack = (BinaryNode<AnyType> [ ]) new BinaryNode<?>[ 16 ];
+        private int depth;                  // Number of pending nodes
+        private BinaryNode<AnyType> last;   // Node that ends this part, or null
+        private long est;                   // Exact number of items left
+    }
+
+    // Basic node stored in binary search trees
+    private static class BinaryNode<AnyType>
+    {
+            // Constructors
+        BinaryNode( AnyType theElement, BinaryNode<AnyType> lt, BinaryNode<AnyType> rt, Object theOwner )
+        {
+            element  = theElement;
+            left     = lt;
+            right    = rt;
+            size     = 1;
+            occurrences = 1;
+            owner    = theOwner;
+            if( lt == null && rt == null && theElement != null )
+                rehash( this );
+        }
+
+            // Copy of other, owned by theOwner
+        BinaryNode( BinaryNode<AnyType> other, Object theOwner )
+        {
+            element  = other.element;
+            left     = other.left;
+            right    = other.right;
+            height   = other.height;
+            size     = other.size;
+            occurrences = other.occurrences;
+            shape    = other.shape;
+            digest   = other.digest;
+            mirrorDigest = other.mirrorDigest;
+            owner    = theOwner;
+        }
+
+        AnyType element;            // The data in the node
+        BinaryNode<AnyType> left;   // Left child
+        BinaryNode<AnyType> right;  // Right child
+        int height;                 // Height of the subtree rooted here
+        int size;                   // Number of nodes in the subtree rooted here
+        int occurrences;            // Times the item occurs; above 1 only in a multiset
+        long shape;                 // Hash of the subtree's shape
+        long digest;                // Hash of the subtree's shape and items
+        long mirrorDigest;          // digest of the subtree's mirror image
+        Object owner;               // Identity of the tree that may change this node
+    }
+
+    private static final int ALLOWED_IMBALANCE = 1;
+    private static final double ALPHA = 0.7;    // Scapegoat weight balance
+    private static final double LOG_INVERSE_ALPHA = Math.log( 1 / ALPHA );
+    private static final int INITIAL_PATH_LENGTH = 64;
+    private static final int PARALLEL_THRESHOLD = 1 << 14;   // Nodes below which work stays sequential
+
+      /** The digest of an empty tree or subtree. */
+    public static final long EMPTY_HASH = 0;
+    private static final long LEFT_SEED  = 0x9e3779b97f4a7c15L;
+    private static final long RIGHT_SEED = 0x632be59bd9b4e019L;
+    private static final long SHAPE_SEED = 0x85ebca6b0c2b2ae3L;
+      /** Stand-in for a missing child in diff's work stack. */
+    private static final BinaryNode<Object> SENTINEL = new BinaryNode<>( null, null, null, null );
+
+      /** The tree root. */
+    private BinaryNode<AnyType> root;
+      /** Search path scratch space, reused by every update. */
+    @SuppressWarnings( "unchecked" )
+    private BinaryNode<AnyType> [ ] path =
+            (BinaryNode<AnyType> [ ]) new BinaryNode<?>[ INITIAL_PATH_LENGTH ];
+    private final Balance balance;
+    private final boolean multiset;
+    private int count = 0;          // Number of items in the tree
+    private long total = 0;         // Number of occurrences; equals count unless a multiset
+    private Object owner = new Object( );   // Identity stamped on nodes this tree may change
+    private TreeMetrics metrics;    // Null unless metrics are enabled
+    private Cursor cursor;          // The open cursor, if any
+    private int probes;             // compareTo calls made by the last update or splay
+
+
+        // Test program
+    public static void main( String [ ] args )
+    {
+        BinarySearchTree<Integer> t = new BinarySearchTree<>( );
+//        final int NUMS = 10;
+//        final int GAP  =   37;
+
+//        System.out.println( "Checking... (no more output means success)" );
+        
+//        for( int i = GAP; i != 0; i = ( i + GAP ) % NUMS )
+//            t.insert( i );
+
+//        for( int i = 1; i < NUMS; i+= 2 )
+//            t.remove( i );
+//
+//        if( NUMS < 40 )
+//            t.printTree( );
+//        if( t.findMin( ) != 2 || t.findMax( ) != NUMS - 2 )
+//            System.out.println( "FindMin or FindMax error!" );
+//
+//        for( int i = 2; i < NUMS; i+=2 )
+//             if( !t.contains( i ) )
+//                 System.out.println( "Find error1!" );
+//
+//        for( int i = 1; i < NUMS; i+=2 )
+//        {
+//            if( t.contains( i ) )
+//                System.out.println( "Find error2!" );
+//        }
+        int treeElements[] = {65, 13, 16, 52, 28, 11, 20, 14, 87, 50, 26};
+//        int treeElements[] = {15,13,14,12,17};
+                
+        for(int i = 0; i < treeElements.length; i++) {
+        	t.insert(treeElements[i]);
+        }
+        System.out.println("/******************************/");
+        System.out.println("A. Solution");
+        System.out.print("The original elements inserted to the tree are: ");
+        for(int i = 0; i < treeElements.length; i++) {
+        	System.out.print(treeElements[i] + " ");
+        }
+        System.out.println("");
+        System.out.print("Count of the nodes: ");
+        System.out.println(t.nodeCount());
+        System.out.println("/******************************/");
+        
+        
+        System.out.println("/******************************/");
+        System.out.println("B. Solution");
+        System.out.print("The original elements inserted to the tree are: ");
+        for(int i = 0; i < treeElements.length; i++) {
+        	System.out.print(treeElements[i] + " ");
+        }
+        System.out.println("");
+        System.out.print("If the tree is full: ");
+        System.out.println(t.isFull());
+        System.out.println("/******************************/");
+        
+        
+        BinarySearchTree<Integer> t2 = new BinarySearchTree<>( );
+        int treeElements2[] = {65, 13, 16, 52, 28, 11, 20, 14, 87, 50, 26};
+//        int treeElements2[] = {15,13,14,12,17};
+              
+		for(int i = 0; i < treeElements2.length; i++) {
+			t2.insert(treeElements2[i]);
+		}
+        System.out.println("/******************************/");
+        System.out.println("C. Solution");
+        System.out.print("The original elements inserted to the tree 1 are: ");
+        for(int i = 0; i < treeElements.length; i++) {
+        	System.out.print(treeElements[i] + " ");
+        }
+        System.out.println("");
+        System.out.print("The original elements inserted to the tree 2 are: ");
+        for(int i = 0; i < treeElements2.length; i++) {
+        	System.out.print(treeElements2[i] + " ");
+        }
+        System.out.println("");
+        System.out.print("The structure of both the tree is same: ");
+        System.out.println(t.compareStructure(t2));
+        System.out.println("/******************************/");
+        
+        
+        System.out.println("/******************************/");
+        System.out.println("D. Solution");
+        System.out.print("The original elements inserted to the tree 1 are: ");
+        for(int i = 0; i < treeElements.length; i++) {
+        	System.out.print(treeElements[i] + " ");
+        }
+        System.out.println("");
+        System.out.print("The original elements inserted to the tree 2 are: ");
+        for(int i = 0; i < treeElements2.length; i++) {
+        	System.out.print(treeElements2[i] + " ");
+        }
+        System.out.println("");
+        System.out.print("Both the trees are equal: ");
+        System.out.println(t.structurallyEquals(t2));
+        System.out.println("/******************************/");
+        
+        
+        System.out.println("/******************************/");
+        System.out.println("E. Solution");
+        System.out.print("The original elements inserted to the tree are: ");
+        for(int i = 0; i < treeElements.length; i++) {
+        	System.out.print(treeElements[i] + " ");
+        }
+        System.out.println("");
+        System.out.println("Copied Tree is: ");
+        BinarySearchTree<Integer> objCopy = new BinarySearchTree<>( );
+        objCopy = t.copy();
+        objCopy.printTree();
+        System.out.println("/******************************/");
+        
+        
+        System.out.println("/******************************/");
+        System.out.println("F. Solution");
+        System.out.print("The original elements inserted to the tree are: ");
+        for(int i = 0; i < treeElements.length; i++) {
+        	System.out.print(treeElements[i] + " ");
+        }
+        System.out.println("");
+        System.out.println("Mirrored Tree is: ");
+        BinarySearchTree<Integer> objMirror = new BinarySearchTree<>( );
+        objMirror = t.mirror();
+        objMirror.printTree();
+        System.out.println("/******************************/");
+        
+        
+        System.out.println("/******************************/");
+        System.out.println("G. Solution");
+        System.out.print("The original elements inserted to the tree 1 are: ");
+        for(int i = 0; i < treeElements.length; i++) {
+        	System.out.print(treeElements[i] + " ");
+        }
+        System.out.println("");
+        System.out.print("The original elements inserted to the tree 2 are: ");
+        for(int i = 0; i < treeElements2.length; i++) {
+        	System.out.print(treeElements2[i] + " ");
+        }
+        System.out.println("");
+        System.out.println("Mirrored of tree 2 is: ");
+        BinarySearchTree<Integer> objMirror2 = new BinarySearchTree<>( );
+        objMirror2 = t2.mirror();
+        objMirror2.printTree();
+        System.out.print("The tree 1 is mirror of tree 2: ");
+        System.out.println(t.isMirror(objMirror2));
+        System.out.println("/******************************/");
+        
+        
+        System.out.println("/******************************/");
+        System.out.println("H. Solution");
+        System.out.println("The original elements inserted to the tree are: ");
+        t.printLevels();
+        System.out.println("");
+        System.out.println("Rotate Right on 65 to the original Tree is: ");
+        int testRR = 65;
+        t.rotateRight(testRR);
+        t.printLevels();
+        System.out.println("/******************************/");
+        
+        System.out.println("/******************************/");
+        System.out.println("I. Solution");
+        System.out.println("The original elements inserted to the tree are: ");
+        t.printLevels();
+        System.out.println("");
+        System.out.println("Rotate Left on 13 to the original Tree is: ");
+        int testRL = 13;
+        t.rotateLeft(testRL);
+        t.printLevels();
+        System.out.println("/******************************/");
+        
+        
+        System.out.println("/******************************/");
+        System.out.println("J. Solution");
+        System.out.print("The original elements inserted to the tree are: ");
+        for(int i = 0; i < treeElements.length; i++) {
+        	System.out.print(treeElements[i] + " ");
+        }
+        System.out.println("");
+        System.out.println("Printing tree level-by-level: ");
+        t.printLevels ();
+        System.out.println("/******************************/");
+        
+    }
+}
\ No newline at end of file
@@ -0,0 +1,828 @@
+package bst;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+// BinarySearchTreeBenchmark class
+//
+// Times the BinarySearchTree operations on shallow and deep trees.
+//
+// Usage: java bst.BinarySearchTreeBenchmark [ n ]
+//   n defaults to 20000 keys
+//
+// Sorted insertion produces a degenerate tree of depth n, which is the
+// shape that overflowed the thread stack when the internal methods were
+// recursive. Each line reports the throughput of one operation.
+
+/**
+ * Micro-benchmark for BinarySearchTree.
+ */
+public class BinarySearchTreeBenchmark
+{
+    private static final int ROUNDS = 3;
+    private static final int FROZEN_KEYS = 1 << 20;     // Large enough to miss in cache
+    private static final double ZIPF_SKEW = 0.99;
+    private static final int CHAINED_ROTATIONS = 8;
+    private static final int HEAD_VIEWS = 20;         // TreeSet views count in O(n)
+    private static final int DISTINCT_KEYS = 1000;    // Keys in the duplicate-heavy stream
+    private static final int RECURSION_KEYS = 3000;   // Deep, yet safe for the recursive tree
+
+    public static void main( String [ ] args ) throws IOException
+    {
+        int n = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 20000;
+
+        int [ ] sorted = new int[ n ];
+        for( int i = 0; i < n; i++ )
+            sorted[ i ] = i;
+        int [ ] shuffled = sorted.clone( );
+        shuffle( shuffled, new Random( 42 ) );
+
+        System.out.println( "n = " + n );
+        for( int round = 1; round <= ROUNDS; round++ )
+        {
+            System.out.println( "/******************************/" );
+            System.out.println( "Round " + round );
+            run( "random keys, unbalanced", BinarySearchTree.Balance.NONE, shuffled, shuffled );
+            run( "sorted keys, unbalanced", BinarySearchTree.Balance.NONE, sorted, shuffled );
+            runRecursive( "3K sorted keys, depth 3K", RECURSION_KEYS );
+            run( "sorted keys, AVL       ", BinarySearchTree.Balance.AVL, sorted, shuffled );
+            run( "sorted keys, scapegoat ", BinarySearchTree.Balance.SCAPEGOAT, sorted, shuffled );
+            runInt( "random keys, int arrays", shuffled, shuffled );
+            runBulkLoad( "sorted keys, fromSorted", sorted );
+            runWholeTree( "random keys, whole tree", shuffled );
+            runLevels( "random keys, level dump ", shuffled );
+            runBatch( "random keys, batches    ", shuffled );
+            runSnapshot( "random keys, snapshot   ", shuffled );
+            runFrozen( "1M keys, frozen lookups ", FROZEN_KEYS );
+            runRotations( "random keys, rotations   ", shuffled );
+            runBTree( "1M keys, B-tree          ", FROZEN_KEYS );
+            runZipf( "1M keys, Zipf lookups    ", FROZEN_KEYS );
+            runNavigable( "1M keys, nearest lookups ", FROZEN_KEYS );
+            runMultiset( "1M items, 1K keys        ", FROZEN_KEYS );
+        }
+    }
+
+    /**
+     * Build a tree from the insert order, then time lookups and removals
+     * in the probe order.
+     */
+    private static void run( String label, BinarySearchTree.Balance balance,
+                             int [ ] insertOrder, int [ ] probeOrder )
+    {
+        BinarySearchTree<Integer> t = new BinarySearchTree<>( balance );
+
+        long start = System.nanoTime( );
+        for( int x : insertOrder )
+            t.insert( x );
+        long insertTime = System.nanoTime( ) - start;
+
+        start = System.nanoTime( );
+        int found = 0;
+        for( int x : probeOrder )
+            if( t.contains( x ) )
+                found++;
+        long containsTime = System.nanoTime( ) - start;
+
+        start = System.nanoTime( );
+        for( int x : probeOrder )
+            t.remove( x );
+        long removeTime = System.nanoTime( ) - start;
+
+        if( found != probeOrder.length || !t.isEmpty( ) )
+            System.out.println( label + ": benchmark error!" );
+
+        System.out.println( label + ":  insert " + opsPerSecond( insertOrder.length, insertTime )
+                + "  contains " + opsPerSecond( probeOrder.length, containsTime )
+                + "  remove " + opsPerSecond( probeOrder.length, removeTime ) + " ops/s" );
+    }
+
+    /**
+     * Time insert, contains and remove on a degenerate tree of n sorted
+     * keys, first with the original recursive algorithms, then with the
+     * iterative BinarySearchTree. n is small enough for the recursion to
+     * fit on the thread stack. The iterative tree also keeps heights,
+     * sizes and hashes up to date, which the recursive one does not.
+     */
+    private static void runRecursive( String label, int n )
+    {
+        int [ ] probes = new int[ n ];
+        for( int i = 0; i < n; i++ )
+            probes[ i ] = i;
+        shuffle( probes, new Random( 11 ) );
+
+        RecursiveTree r = new RecursiveTree( );
+        long start = System.nanoTime( );
+        for( int i = 0; i < n; i++ )
+            r.insert( i );
+        long recursiveInsert = System.nanoTime( ) - start;
+        int found = 0;
+        start = System.nanoTime( );
+        for( int x : probes )
+            if( r.contains( x ) )
+                found++;
+        long recursiveContains = System.nanoTime( ) - start;
+        start = System.nanoTime( );
+        for( int x : probes )
+            r.remove( x );
+        long recursiveRemove = System.nanoTime( ) - start;
+
+        BinarySearchTree<Integer> t = new BinarySearchTree<>( );
+        start = System.nanoTime( );
+        for( int i = 0; i < n; i++ )
+            t.insert( i );
+        long loopInsert = System.nanoTime( ) - start;
+        start = System.nanoTime( );
+        for( int x : probes )
+            if( t.contains( x ) )
+                found++;
+        long loopContains = System.nanoTime( ) - start;
+        start = System.nanoTime( );
+        for( int x : probes )
+            t.remove( x );
+        long loopRemove = System.nanoTime( ) - start;
+
+        if( found != 2 * n || !r.isEmpty( ) || !t.isEmpty( ) )
+            System.out.println( label + ": benchmark error!" );
+
+        System.out.println( label + ":  recursive insert " + opsPerSecond( n, recursiveInsert )
+                + "  contains " + opsPerSecond( n, recursiveContains )
+                + "  remove " + opsPerSecond( n, recursiveRemove ) + " ops/s" );
+        System.out.println( label + ":  iterative insert " + opsPerSecond( n, loopInsert )
+                + "  contains " + opsPerSecond( n, loopContains )
+                + "  remove " + opsPerSecond( n, loopRemove ) + " ops/s" );
+    }
+
+    /**
+     * As run, for the primitive IntBinarySearchTree.
+     */
+    private static void runInt( String label, int [ ] insertOrder, int [ ] probeOrder )
+    {
+        IntBinarySearchTree t = new IntBinarySearchTree( insertOrder.length );
+
+        long start = System.nanoTime( );
+        for( int x : insertOrder )
+            t.insert( x );
+        long insertTime = System.nanoTime( ) - start;
+
+        start = System.nanoTime( );
+        int found = 0;
+        for( int x : probeOrder )
+            if( t.contains( x ) )
+                found++;
+        long containsTime = System.nanoTime( ) - start;
+
+        start = System.nanoTime( );
+        for( int x : probeOrder )
+            t.remove( x );
+        long removeTime = System.nanoTime( ) - start;
+
+        if( found != probeOrder.length || !t.isEmpty( ) )
+            System.out.println( label + ": benchmark error!" );
+
+        System.out.println( label + ":  insert " + opsPerSecond( insertOrder.length, insertTime )
+                + "  contains " + opsPerSecond( probeOrder.length, containsTime )
+                + "  remove " + opsPerSecond( probeOrder.length, removeTime ) + " ops/s" );
+    }
+
+    /**
+     * Time building a tree from sorted keys with fromSorted,
+     * against the same keys inserted one at a time into an AVL tree.
+     */
+    private static void runBulkLoad( String label, int [ ] sortedKeys )
+    {
+        Integer [ ] items = new Integer[ sortedKeys.length ];
+        for( int i = 0; i < items.length; i++ )
+            items[ i ] = sortedKeys[ i ];
+
+        long start = System.nanoTime( );
+        BinarySearchTree<Integer> bulk = BinarySearchTree.fromSorted( items );
+        long bulkTime = System.nanoTime( ) - start;
+
+        start = System.nanoTime( );
+        BinarySearchTree<Integer> t = new BinarySearchTree<>( BinarySearchTree.Balance.AVL );
+        for( Integer x : items )
+            t.insert( x );
+        long insertTime = System.nanoTime( ) - start;
+
+        if( bulk.nodeCount( ) != t.nodeCount( ) )
+            System.out.println( label + ": benchmark error!" );
+
+        System.out.println( label + ":  build  " + opsPerSecond( items.length, bulkTime )
+                + "  AVL insert loop " + opsPerSecond( items.length, insertTime ) + " ops/s" );
+    }
+
+    /**
+     * Time the whole-tree checks, which run as fork/join tasks on
+     * large trees, on two equal trees.
+     */
+    private static void runWholeTree( String label, int [ ] keys )
+    {
+        BinarySearchTree<Integer> t1 = new BinarySearchTree<>( );
+        BinarySearchTree<Integer> t2 = new BinarySearchTree<>( );
+        for( int x : keys )
+        {
+            t1.insert( x );
+            t2.insert( x );
+        }
+
+        long start = System.nanoTime( );
+        boolean ok = t1.structurallyEquals( t2 ) && t1.compareStructure( t2 );
+        long equalsTime = System.nanoTime( ) - start;
+
+        start = System.nanoTime( );
+        BinarySearchTree<Integer> m = t1.mirror( );
+        long mirrorTime = System.nanoTime( ) - start;
+
+        start = System.nanoTime( );
+        ok &= t1.isMirror( m );
+        long isMirrorTime = System.nanoTime( ) - start;
+
+        if( !ok )
+            System.out.println( label + ": benchmark error!" );
+
+        System.out.println( label + ":  equals+compareStructure " + millis( equalsTime )
+                + "  mirror " + millis( mirrorTime ) + "  isMirror " + millis( isMirrorTime )
+                + " on " + ForkJoinPool.getCommonPoolParallelism( ) + " worker(s)" );
+    }
+
+    /**
+     * Time adding and then removing the odd keys in eight batches with
+     * insertAll and deleteAll, against the same keys one at a time, on
+     * trees that already hold the even keys.
+     */
+    private static void runBatch( String label, int [ ] keys )
+    {
+        BinarySearchTree<Integer> loop = new BinarySearchTree<>( );
+        BinarySearchTree<Integer> batched = new BinarySearchTree<>( );
+        List<List<Integer>> batches = new ArrayList<>( );
+        List<Integer> batch = new ArrayList<>( );
+        int batchSize = Math.max( keys.length / 16, 1 );
+        int odd = 0;
+        for( int x : keys )
+            if( x % 2 == 0 )
+            {
+                loop.insert( x );
+                batched.insert( x );
+            }
+            else
+            {
+                batch.add( x );
+                odd++;
+                if( batch.size( ) == batchSize )
+                {
+                    batches.add( batch );
+                    batch = new ArrayList<>( );
+                }
+            }
+        batches.add( batch );
+
+        long start = System.nanoTime( );
+        for( List<Integer> b : batches )
+            for( Integer x : b )
+                loop.insert( x );
+        long insertTime = System.nanoTime( ) - start;
+
+        start = System.nanoTime( );
+        int added = 0;
+        for( List<Integer> b : batches )
+            added += batched.insertAll( b );
+        long insertAllTime = System.nanoTime( ) - start;
+
+        start = System.nanoTime( );
+        for( List<Integer> b : batches )
+            for( Integer x : b )
+                loop.remove( x );
+        long removeTime = System.nanoTime( ) - start;
+
+        start = System.nanoTime( );
+        int removed = 0;
+        for( List<Integer> b : batches )
+            removed += batched.deleteAll( b );
+        long removeAllTime = System.nanoTime( ) - start;
+
+        if( added != odd || removed != odd || !loop.structurallyEquals( batched ) )
+            System.out.println( label + ": benchmark error!" );
+
+        System.out.println( label + ":  insert " + opsPerSecond( odd, insertTime )
+                + "  insertAll " + opsPerSecond( odd, insertAllTime )
+                + "  remove " + opsPerSecond( odd, removeTime )
+                + "  deleteAll " + opsPerSecond( odd, removeAllTime ) + " ops/s" );
+    }
+
+    /**
+     * Time saving a tree to a snapshot file and loading it back,
+     * against rebuilding it by inserting every key.
+     */
+    private static void runSnapshot( String label, int [ ] keys ) throws IOException
+    {
+        long start = System.nanoTime( );
+        BinarySearchTree<Integer> t = new BinarySearchTree<>( );
+        for( int x : keys )
+            t.insert( x );
+        long insertTime = System.nanoTime( ) - start;
+
+        Path file = Files.createTempFile( "bst", ".snapshot" );
+        try
+        {
+            start = System.nanoTime( );
+            BinarySearchTree.save( t, file );
+            long saveTime = System.nanoTime( ) - start;
+
+            start = System.nanoTime( );
+            BinarySearchTree<Integer> loaded = BinarySearchTree.load( file );
+            long loadTime = System.nanoTime( ) - start;
+
+            if( !loaded.structurallyEquals( t ) )
+                System.out.println( label + ": benchmark error!" );
+
+            System.out.println( label + ":  insert loop " + opsPerSecond( keys.length, insertTime )
+                    + "  save " + opsPerSecond( keys.length, saveTime )
+                    + "  load " + opsPerSecond( keys.length, loadTime ) + " items/s" );
+        }
+        finally
+        {
+            Files.delete( file );
+        }
+    }
+
+    /**
+     * Time random successful lookups in pointer trees against their
+     * frozen Eytzinger copies, for Integer and int keys.
+     */
+    private static void runFrozen( String label, int n )
+    {
+        int [ ] keys = new int[ n ];
+        for( int i = 0; i < n; i++ )
+            keys[ i ] = i * 2;
+        shuffle( keys, new Random( 7 ) );
+
+        BinarySearchTree<Integer> t = new BinarySearchTree<>( BinarySearchTree.Balance.AVL );
+        IntBinarySearchTree it = new IntBinarySearchTree( n );
+        for( int x : keys )
+        {
+            t.insert( x );
+            it.insert( x );
+        }
+        FrozenBinarySearchTree<Integer> f = t.freeze( );
+        FrozenIntBinarySearchTree fi = it.freeze( );
+        shuffle( keys, new Random( 8 ) );
+
+        int found = 0;
+        long start = System.nanoTime( );
+        for( int x : keys )
+            if( t.contains( x ) )
+                found++;
+        long treeTime = System.nanoTime( ) - start;
+
+        start = System.nanoTime( );
+        for( int x : keys )
+            if( f.contains( x ) )
+                found++;
+        long frozenTime = System.nanoTime( ) - start;
+
+        start = System.nanoTime( );
+        for( int x : keys )
+            if( it.contains( x ) )
+                found++;
+        long intTime = System.nanoTime( ) - start;
+
+        start = System.nanoTime( );
+        for( int x : keys )
+            if( fi.contains( x ) )
+                found++;
+        long frozenIntTime = System.nanoTime( ) - start;
+
+        if( found != 4 * n )
+            System.out.println( label + ": benchmark error!" );
+
+        System.out.println( label + ":  AVL " + opsPerSecond( n, treeTime )
+                + "  frozen " + opsPerSecond( n, frozenTime )
+                + "  int arrays " + opsPerSecond( n, intTime )
+                + "  frozen int " + opsPerSecond( n, frozenIntTime ) + " lookups/s" );
+    }
+
+    /**
+     * Time a right then a left rotation at each key, by key and through
+     * a cursor, and a chain of CHAINED_ROTATIONS such pairs per cursor.
+     * The by-key and single cursor runs rotate identical trees.
+     */
+    private static void runRotations( String label, int [ ] keys )
+    {
+        BinarySearchTree<Integer> byKey = new BinarySearchTree<>( BinarySearchTree.Balance.AVL );
+        BinarySearchTree<Integer> byCursor = new BinarySearchTree<>( BinarySearchTree.Balance.AVL );
+        BinarySearchTree<Integer> chained = new BinarySearchTree<>( BinarySearchTree.Balance.AVL );
+        for( int x : keys )
+        {
+            byKey.insert( x );
+            byCursor.insert( x );
+            chained.insert( x );
+        }
+
+        long start = System.nanoTime( );
+        for( int x : keys )
+        {
+            byKey.rotateRight( x );
+            byKey.rotateLeft( x );
+        }
+        long keyTime = System.nanoTime( ) - start;
+
+        start = System.nanoTime( );
+        for( int x : keys )
+            try( BinarySearchTree<Integer>.Cursor c = byCursor.cursor( x ) )
+            {
+                if( c.hasLeft( ) )
+                    c.rotateRight( );
+                if( c.hasRight( ) )
+                    c.rotateLeft( );
+            }
+        long cursorTime = System.nanoTime( ) - start;
+
+        start = System.nanoTime( );
+        for( int x : keys )
+            try( BinarySearchTree<Integer>.Cursor c = chained.cursor( x ) )
+            {
+                for( int i = 0; i < CHAINED_ROTATIONS; i++ )
+                {
+                    if( c.hasLeft( ) )
+                        c.rotateRight( );
+                    if( c.hasRight( ) )
+                        c.rotateLeft( );
+                }
+            }
+        long chainedTime = System.nanoTime( ) - start;
+
+        if( !byKey.structurallyEquals( byCursor ) )
+            System.out.println( label + ": benchmark error!" );
+
+        System.out.println( label + ":  by key " + opsPerSecond( 2 * keys.length, keyTime )
+                + "  cursor " + opsPerSecond( 2 * keys.length, cursorTime )
+                + "  chained " + opsPerSecond( 2 * CHAINED_ROTATIONS * keys.length, chainedTime )
+                + " rotations/s" );
+    }
+
+    /**
+     * Time lookups drawn from a Zipf distribution, where the k-th most
+     * popular key is drawn with probability proportional to 1 / k^ZIPF_SKEW,
+     * in the plain, AVL and splay trees. Popularity is unrelated to
+     * key order or insertion order.
+     */
+    private static void runZipf( String label, int n )
+    {
+        int [ ] keys = new int[ n ];
+        for( int i = 0; i < n; i++ )
+            keys[ i ] = i;
+        shuffle( keys, new Random( 7 ) );
+
+        double [ ] cdf = new double[ n ];
+        double sum = 0;
+        for( int k = 0; k < n; k++ )
+            cdf[ k ] = sum += 1 / Math.pow( k + 1, ZIPF_SKEW );
+        Random r = new Random( 9 );
+        int [ ] probes = new int[ 2 * n ];
+        for( int i = 0; i < probes.length; i++ )
+        {
+            int k = Arrays.binarySearch( cdf, r.nextDouble( ) * sum );
+            probes[ i ] = keys[ k < 0 ? -k - 1 : k ];   // Popularity rank k is keys[ k ]
+        }
+        shuffle( keys, new Random( 8 ) );
+
+        StringBuilder line = new StringBuilder( label + ":" );
+        for( BinarySearchTree.Balance balance : BinarySearchTree.Balance.values( ) )
+        {
+            BinarySearchTree<Integer> t = new BinarySearchTree<>( balance );
+            for( int x : keys )
+                t.insert( x );
+
+            int found = 0;
+            long start = System.nanoTime( );
+            for( int x : probes )
+                if( t.contains( x ) )
+                    found++;
+            long time = System.nanoTime( ) - start;
+
+            if( found != probes.length )
+                System.out.println( label + ": benchmark error!" );
+            line.append( "  " ).append( balance ).append( ' ' ).append( opsPerSecond( probes.length, time ) );
+        }
+        System.out.println( line + " lookups/s" );
+    }
+
+    /**
+     * Time random inserts, successful lookups and removals in an AVL
+     * tree against a B-tree with the default node size.
+     */
+    private static void runBTree( String label, int n )
+    {
+        int [ ] keys = new int[ n ];
+        for( int i = 0; i < n; i++ )
+            keys[ i ] = i * 2;
+        shuffle( keys, new Random( 7 ) );
+
+        BinarySearchTree<Integer> t = new BinarySearchTree<>( BinarySearchTree.Balance.AVL );
+        BTree<Integer> b = new BTree<>( );
+        long start = System.nanoTime( );
+        for( int x : keys )
+            t.insert( x );
+        long treeInsert = System.nanoTime( ) - start;
+        start = System.nanoTime( );
+        for( int x : keys )
+            b.insert( x );
+        long bInsert = System.nanoTime( ) - start;
+        shuffle( keys, new Random( 8 ) );
+
+        int found = 0;
+        start = System.nanoTime( );
+        for( int x : keys )
+            if( t.contains( x ) )
+                found++;
+        long treeFind = System.nanoTime( ) - start;
+        start = System.nanoTime( );
+        for( int x : keys )
+            if( b.contains( x ) )
+                found++;
+        long bFind = System.nanoTime( ) - start;
+
+        start = System.nanoTime( );
+        for( int x : keys )
+            t.remove( x );
+        long treeRemove = System.nanoTime( ) - start;
+        start = System.nanoTime( );
+        for( int x : keys )
+            b.remove( x );
+        long bRemove = System.nanoTime( ) - start;
+
+        if( found != 2 * n || !t.isEmpty( ) || !b.isEmpty( ) )
+            System.out.println( label + ": benchmark error!" );
+
+        System.out.println( label + ":  AVL insert " + opsPerSecond( n, treeInsert )
+                + "  find " + opsPerSecond( n, treeFind )
+                + "  remove " + opsPerSecond( n, treeRemove ) + " ops/s" );
+        System.out.println( label + ":  B-tree insert " + opsPerSecond( n, bInsert )
+                + "  find " + opsPerSecond( n, bFind )
+                + "  remove " + opsPerSecond( n, bRemove ) + " ops/s" );
+    }
+
+    /**
+     * Time floor, ceiling and a headSet view against an AVL tree and a
+     * TreeSet through the NavigableSet interface, on even keys probed at
+     * odd values so that every lookup misses its exact key.
+     */
+    private static void runNavigable( String label, int n )
+    {
+        int [ ] keys = new int[ n ];
+        for( int i = 0; i < n; i++ )
+            keys[ i ] = i * 2;
+        shuffle( keys, new Random( 9 ) );
+
+        List<NavigableSet<Integer>> sets = new ArrayList<>( );
+        sets.add( new BinarySearchTree<>( BinarySearchTree.Balance.AVL ) );
+        sets.add( new TreeSet<>( ) );
+        for( NavigableSet<Integer> s : sets )
+        {
+            for( int x : keys )
+                s.add( x );
+
+            long sum = 0;
+            long start = System.nanoTime( );
+            for( int x : keys )
+                sum += s.floor( x + 1 );
+            long floorTime = System.nanoTime( ) - start;
+            start = System.nanoTime( );
+            for( int x : keys )
+                if( x != 2 * n - 2 )
+                    sum -= s.ceiling( x + 1 );
+            long ceilingTime = System.nanoTime( ) - start;
+            start = System.nanoTime( );
+            for( int i = 0; i < HEAD_VIEWS; i++ )
+                sum += s.headSet( keys[ i ] + 1, false ).size( );
+            long headTime = System.nanoTime( ) - start;
+
+            long expect = 0;
+            for( int i = 0; i < HEAD_VIEWS; i++ )
+                expect += keys[ i ] / 2 + 1;
+            if( sum != expect )
+                System.out.println( label + ": benchmark error!" );
+
+            System.out.println( label + ":  " + ( s instanceof TreeSet ? "TreeSet" : "AVL    " )
+                    + " floor " + opsPerSecond( n, floorTime )
+                    + "  ceiling " + opsPerSecond( n, ceilingTime )
+                    + "  headSet size " + opsPerSecond( HEAD_VIEWS, headTime ) + " ops/s" );
+        }
+    }
+
+    /**
+     * Time counting a stream with few distinct keys, first with an AVL set
+     * and a HashMap of counts beside it, then with an AVL multiset alone.
+     * Each item is inserted, then counted, then removed once.
+     */
+    private static void runMultiset( String label, int n )
+    {
+        int [ ] stream = new int[ n ];
+        Random r = new Random( 10 );
+        for( int i = 0; i < n; i++ )
+            stream[ i ] = r.nextInt( DISTINCT_KEYS );
+
+        BinarySearchTree<Integer> set = new BinarySearchTree<>( BinarySearchTree.Balance.AVL );
+        Map<Integer, Integer> counts = new HashMap<>( );
+        long start = System.nanoTime( );
+        for( int x : stream )
+        {
+            set.insert( x );
+            counts.merge( x, 1, Integer::sum );
+        }
+        long mapInsert = System.nanoTime( ) - start;
+        long sum = 0;
+        start = System.nanoTime( );
+        for( int x : stream )
+            sum += counts.getOrDefault( x, 0 );
+        long mapCount = System.nanoTime( ) - start;
+        start = System.nanoTime( );
+        for( int x : stream )
+            if( counts.merge( x, -1, Integer::sum ) == 0 )
+            {
+                counts.remove( x );
+                set.remove( x );
+            }
+        long mapRemove = System.nanoTime( ) - start;
+
+        BinarySearchTree<Integer> t = new BinarySearchTree<>( BinarySearchTree.Balance.AVL, true );
+        start = System.nanoTime( );
+        for( int x : stream )
+            t.insert( x );
+        long treeInsert = System.nanoTime( ) - start;
+        int nodes = t.nodeCount( );
+        start = System.nanoTime( );
+        for( int x : stream )
+            sum -= t.count( x );
+        long treeCount = System.nanoTime( ) - start;
+        start = System.nanoTime( );
+        for( int x : stream )
+            t.remove( x );
+        long treeRemove = System.nanoTime( ) - start;
+
+        if( sum != 0 || !set.isEmpty( ) || !counts.isEmpty( ) || !t.isEmpty( ) )
+            System.out.println( label + ": benchmark error!" );
+
+        System.out.println( label + ":  set+HashMap insert " + opsPerSecond( n, mapInsert )
+                + "  count " + opsPerSecond( n, mapCount )
+                + "  remove " + opsPerSecond( n, mapRemove ) + " ops/s" );
+        System.out.println( label + ":  multiset    insert " + opsPerSecond( n, treeInsert )
+                + "  count " + opsPerSecond( n, treeCount )
+                + "  remove " + opsPerSecond( n, treeRemove ) + " ops/s  " + nodes + " nodes" );
+    }
+
+    /**
+     * Time writing the level-order dump of a tree through a buffered
+     * writer that discards its output, so only the traversal and
+     * formatting are measured.
+     */
+    private static void runLevels( String label, int [ ] keys ) throws IOException
+    {
+        BinarySearchTree<Integer> t = new BinarySearchTree<>( );
+        for( int x : keys )
+            t.insert( x );
+
+        Writer out = new BufferedWriter( Writer.nullWriter( ), 1 << 16 );
+        long start = System.nanoTime( );
+        t.writeLevels( out );
+        out.flush( );
+        long levelsTime = System.nanoTime( ) - start;
+
+        System.out.println( label + ":  writeLevels " + opsPerSecond( keys.length, levelsTime ) + " items/s" );
+    }
+
+    private static String millis( long nanos )
+    {
+        return String.format( "%8.2f ms", nanos / 1e6 );
+    }
+
+    private static String opsPerSecond( int ops, long nanos )
+    {
+        return String.format( "%,12.0f", ops * 1e9 / Math.max( nanos, 1 ) );
+    }
+
+    private static void shuffle( int [ ] a, Random r )
+    {
+        for( int i = a.length - 1; i > 0; i-- )
+        {
+            int j = r.nextInt( i + 1 );
+            int tmp = a[ i ];
+            a[ i ] = a[ j ];
+            a[ j ] = tmp;
+        }
+    }
+
+    /**
+     * The recursive unbalanced tree that BinarySearchTree started from,
+     * kept as the baseline for runRecursive.
+     */
+    private static class RecursiveTree
+    {
+        void insert( int x )
+        {
+            root = insert( x, root );
+        }
+
+        void remove( int x )
+        {
+            root = remove( x, root );
+        }
+
+        boolean contains( int x )
+        {
+            return contains( x, root );
+        }
+
+        boolean isEmpty( )
+        {
+            return root == null;
+        }
+
+        private Node insert( Integer x, Node t )
+        {
+            if( t == null )
+                return new Node( x );
+
+            int compareResult = x.compareTo( t.element );
+
+            if( compareResult < 0 )
+                t.left = insert( x, t.left );
+            else if( compareResult > 0 )
+                t.right = insert( x, t.right );
+            else
+                ;  // Duplicate; do nothing
+            return t;
+        }
+
+        private Node remove( Integer x, Node t )
+        {
+            if( t == null )
+                return t;   // Item not found; do nothing
+
+            int compareResult = x.compareTo( t.element );
+
+            if( compareResult < 0 )
+                t.left = remove( x, t.left );
+            else if( compareResult > 0 )
+                t.right = remove( x, t.right );
+            else if( t.left != null && t.right != null ) // Two children
+            {
+                t.element = findMin( t.right ).element;
+                t.right = remove( t.element, t.right );
+            }
+            else
+                t = ( t.left != null ) ? t.left : t.right;
+            return t;
+        }
+
+        private Node findMin( Node t )
+        {
+            if( t == null )
+                return null;
+            else if( t.left == null )
+                return t;
+            return findMin( t.left );
+        }
+
+        private boolean contains( Integer x, Node t )
+        {
+            if( t == null )
+                return false;
+
+            int compareResult = x.compareTo( t.element );
+
+            if( compareResult < 0 )
+                return contains( x, t.left );
+            else if( compareResult > 0 )
+                return contains( x, t.right );
+            else
+                return true;    // Match
+        }
+
+        private static class Node
+        {
+            Node( Integer theElement )
+            {
+                element = theElement;
+            }
+
+            Integer element;
+            Node left;
+            Node right;
+        }
+
+        private Node root;
+    }
+}
@@ -0,0 +1,463 @@
+package bst;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+// ConcurrentBinarySearchTree class
+//
+// CONSTRUCTION: with no initializer
+//
+// ******************PUBLIC OPERATIONS*********************
+// void insert( x )       --> Insert x
+// void remove( x )       --> Remove x
+// boolean contains( x )  --> Return true if x is present
+// Comparable findMin( )  --> Return smallest item
+// Comparable findMax( )  --> Return largest item
+// boolean isEmpty( )     --> Return true if empty; else false
+// void makeEmpty( )      --> Remove all items
+// int nodeCount( )       --> Return number of items
+// void rotateRight( x )  --> Rotate right at the node holding x
+// void rotateLeft( x )   --> Rotate left at the node holding x
+// void printTree( )      --> Print tree in sorted order
+// void printLevels( )    --> Print tree level by level
+// ******************ERRORS********************************
+// Throws UnderflowException as appropriate
+
+/**
+ * Implements a thread-safe unbalanced binary search tree.
+ * Updates are serialized by the write mode of a StampedLock. Reads do not
+ * lock: they walk the tree under an optimistic stamp and keep the result
+ * only if no update started meanwhile, so readers never block each other
+ * or a writer. Only after repeated interference does a read fall back to
+ * the shared read lock.
+ * <p>
+ * An optimistic reader may see a half-finished update, for instance a
+ * two-child remove that has copied the successor's item into the removed
+ * node but not yet unlinked the successor. Such a read may give a wrong
+ * answer or run long, so every walk is bounded by the item count and its
+ * answer is discarded unless the stamp still validates.
+ * Note that all "matching" is based on the compareTo method.
+ */
+public class ConcurrentBinarySearchTree<AnyType extends Comparable<? super AnyType>>
+{
+    /**
+     * Construct the tree.
+     */
+    public ConcurrentBinarySearchTree( )
+    {
+        root = null;
+    }
+
+    /**
+     * Insert into the tree; duplicates are ignored.
+     * @param x the item to insert.
+     */
+    public void insert( AnyType x )
+    {
+        long stamp = lock.writeLock( );
+        try
+        {
+            if( root == null )
+            {
+                root = new Node<>( x );
+                count++;
+                return;
+            }
+
+            Node<AnyType> t = root;
+            for( ; ; )
+            {
+                int compareResult = x.compareTo( t.element );
+                if( compareResult < 0 )
+                {
+                    if( t.left == null )
+                    {
+                        t.left = new Node<>( x );
+                        count++;
+                        return;
+                    }
+                    t = t.left;
+                }
+                else if( compareResult > 0 )
+                {
+                    if( t.right == null )
+                    {
+                        t.right = new Node<>( x );
+                        count++;
+                        return;
+                    }
+                    t = t.right;
+                }
+                else
+                    return;  // Duplicate; do nothing
+            }
+        }
+        finally
+        {
+            lock.unlockWrite( stamp );
+        }
+    }
+
+    /**
+     * Remove from the tree. Nothing is done if x is not found.
+     * @param x the item to remove.
+     */
+    public void remove( AnyType x )
+    {
+        long stamp = lock.writeLock( );
+        try
+        {
+            Node<AnyType> parent = null;
+            Node<AnyType> t = root;
+            int compareResult;
+            while( t != null && ( compareResult = x.compareTo( t.element ) ) != 0 )
+            {
+                parent = t;
+                t = compareResult < 0 ? t.left : t.right;
+            }
+            if( t == null )
+                return;   // Item not found; do nothing
+
+            if( t.left != null && t.right != null ) // Two children
+            {
+                parent = t;
+                Node<AnyType> min = t.right;
+                while( min.left != null )
+                {
+                    parent = min;
+                    min = min.left;
+                }
+                t.element = min.element;
+                t = min;
+            }
+
+            replaceChild( parent, t, t.left != null ? t.left : t.right );
+            count--;
+        }
+        finally
+        {
+            lock.unlockWrite( stamp );
+        }
+    }
+
+    /**
+     * Find the smallest item in the tree.
+     * @return smallest item.
+     */
+    public AnyType findMin( )
+    {
+        return read( ( ) -> {
+            Node<AnyType> t = root;
+            if( t == null )
+                throw new UnderflowException( );
+            for( int steps = count; t.left != null; t = t.left )
+                if( --steps < 0 )
+                    return null;
+            return t.element;
+        } );
+    }
+
+    /**
+     * Find the largest item in the tree.
+     * @return the largest item.
+     */
+    public AnyType findMax( )
+    {
+        return read( ( ) -> {
+            Node<AnyType> t = root;
+            if( t == null )
+                throw new UnderflowException( );
+            for( int steps = count; t.right != null; t = t.right )
+                if( --steps < 0 )
+                    return null;
+            return t.element;
+        } );
+    }
+
+    /**
+     * Find an item in the tree.
+     * @param x the item to search for.
+     * @return true if found.
+     */
+    public boolean contains( AnyType x )
+    {
+        return read( ( ) -> {
+            Node<AnyType> t = root;
+            for( int steps = count; t != null; steps-- )
+            {
+                if( steps < 0 )
+                    return null;
+
+                int compareResult = x.compareTo( t.element );
+                if( compareResult < 0 )
+                    t = t.left;
+                else if( compareResult > 0 )
+                    t = t.right;
+                else
+                    return Boolean.TRUE;    // Match
+            }
+            return Boolean.FALSE;
+        } );
+    }
+
+    /**
+     * Make the tree logically empty.
+     */
+    public void makeEmpty( )
+    {
+        long stamp = lock.writeLock( );
+        root = null;
+        count = 0;
+        lock.unlockWrite( stamp );
+    }
+
+    /**
+     * Test if the tree is logically empty.
+     * @return true if empty, false otherwise.
+     */
+    public boolean isEmpty( )
+    {
+        return root == null;
+    }
+
+    /**
+     * Return the number of items in the tree.
+     * @return the number of items.
+     */
+    public int nodeCount( )
+    {
+        return count;
+    }
+
+    /**
+     * Perform a single right rotation at the node holding x.
+     * Nothing is done if x is absent or has no left child.
+     * @param x the item whose node is rotated.
+     */
+    public void rotateRight( AnyType x )
+    {
+        long stamp = lock.writeLock( );
+        try
+        {
+            if( root == null )
+                throw new UnderflowException( );
+            Node<AnyType> parent = findParent( x );
+            Node<AnyType> t = parent == null ? root : child( parent, x );
+            if( t == null || x.compareTo( t.element ) != 0 || t.left == null )
+                return;
+
+            Node<AnyType> k1 = t.left;
+            t.left = k1.right;
+            k1.right = t;
+            replaceChild( parent, t, k1 );
+        }
+        finally
+        {
+            lock.unlockWrite( stamp );
+        }
+    }
+
+    /**
+     * Perform a single left rotation at the node holding x.
+     * Nothing is done if x is absent or has no right child.
+     * @param x the item whose node is rotated.
+     */
+    public void rotateLeft( AnyType x )
+    {
+        long stamp = lock.writeLock( );
+        try
+        {
+            if( root == null )
+                throw new UnderflowException( );
+            Node<AnyType> parent = findParent( x );
+            Node<AnyType> t = parent == null ? root : child( parent, x );
+            if( t == null || x.compareTo( t.element ) != 0 || t.right == null )
+                return;
+
+            Node<AnyType> k2 = t.right;
+            t.right = k2.left;
+            k2.left = t;
+            replaceChild( parent, t, k2 );
+        }
+        finally
+        {
+            lock.unlockWrite( stamp );
+        }
+    }
+
+    /**
+     * Print the tree contents in sorted order.
+     * The items are gathered from a consistent snapshot, then printed.
+     */
+    public void printTree( )
+    {
+        List<AnyType> items = read( ( ) -> {
+            List<AnyType> list = new ArrayList<>( );
+            Deque<Node<AnyType>> stack = new ArrayDeque<>( );
+            int steps = count;
+            Node<AnyType> t = root;
+            while( t != null || !stack.isEmpty( ) )
+            {
+                for( ; t != null; t = t.left )
+                {
+                    if( --steps < 0 )
+                        return null;
+                    stack.push( t );
+                }
+                t = stack.pop( );
+                list.add( t.element );
+                t = t.right;
+            }
+            return list;
+        } );
+
+        if( items.isEmpty( ) )
+            System.out.println( "Empty tree" );
+        for( AnyType x : items )
+            System.out.println( x );
+    }
+
+    /**
+     * Print the tree one level per line, left to right.
+     * The levels are gathered from a consistent snapshot, then printed.
+     */
+    public void printLevels( )
+    {
+        List<StringBuilder> lines = read( ( ) -> {
+            List<StringBuilder> levels = new ArrayList<>( );
+            Deque<Node<AnyType>> q = new ArrayDeque<>( );
+            int steps = count;
+            if( root != null )
+                q.add( root );
+            while( !q.isEmpty( ) )
+            {
+                StringBuilder line = new StringBuilder( );
+                for( int levelSize = q.size( ); levelSize > 0; levelSize-- )
+                {
+                    if( --steps < 0 )
+                        return null;
+                    Node<AnyType> t = q.remove( );
+                    line.append( t.element ).append( ' ' );
+                    if( t.left != null )
+                        q.add( t.left );
+                    if( t.right != null )
+                        q.add( t.right );
+                }
+                levels.add( line );
+            }
+            return levels;
+        } );
+
+        if( lines.isEmpty( ) )
+            System.out.println( "Empty tree" );
+        for( StringBuilder line : lines )
+            System.out.println( line );
+    }
+
+    /**
+     * Internal method to run a read-only walk of the tree.
+     * The walk is first tried optimistically; its result is used only if
+     * no write intervened. A walk returns null when it notices an
+     * inconsistent tree, and any exception from a torn read is treated the
+     * same way. An exception thrown by a walk whose stamp still validates,
+     * such as UnderflowException from an empty tree, is a real answer and
+     * is thrown at once. After OPTIMISTIC_ATTEMPTS failures the walk runs
+     * under the read lock, where it cannot fail.
+     * @param walk the read-only walk.
+     * @return the result of a walk over a consistent tree.
+     */
+    private <R> R read( Supplier<R> walk )
+    {
+        for( int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++ )
+        {
+            long stamp = lock.tryOptimisticRead( );
+            if( stamp == 0 )
+                continue;   // A writer holds the lock
+            try
+            {
+                R result = walk.get( );
+                if( result != null && lock.validate( stamp ) )
+                    return result;
+            }
+            catch( RuntimeException e )
+            {
+                if( lock.validate( stamp ) )
+                    throw e;    // Not caused by a concurrent write
+            }
+        }
+
+        long stamp = lock.readLock( );
+        try
+        {
+            return walk.get( );
+        }
+        finally
+        {
+            lock.unlockRead( stamp );
+        }
+    }
+
+    /**
+     * Internal method to find the parent of the node holding x.
+     * Called with the write lock held.
+     * @return the parent of x's node, or null if x is at the root or the
+     * tree is empty. If x is absent, the last node on its search path,
+     * under which x would be inserted; callers must check for a match.
+     */
+    private Node<AnyType> findParent( AnyType x )
+    {
+        Node<AnyType> parent = null;
+        Node<AnyType> t = root;
+        int compareResult;
+        while( t != null && ( compareResult = x.compareTo( t.element ) ) != 0 )
+        {
+            parent = t;
+            t = compareResult < 0 ? t.left : t.right;
+        }
+        return parent;
+    }
+
+    private Node<AnyType> child( Node<AnyType> t, AnyType x )
+    {
+        return x.compareTo( t.element ) < 0 ? t.left : t.right;
+    }
+
+    /**
+     * Internal method to make sub take the place of child old under parent.
+     * A null parent means old is the root.
+     */
+    private void replaceChild( Node<AnyType> parent, Node<AnyType> old, Node<AnyType> sub )
+    {
+        if( parent == null )
+            root = sub;
+        else if( parent.left == old )
+            parent.left = sub;
+        else
+            parent.right = sub;
+    }
+
+    // Node whose links are safe to read without the lock
+    private static class Node<AnyType>
+    {
+        Node( AnyType theElement )
+        {
+            element = theElement;
+        }
+
+        volatile AnyType element;        // The data in the node
+        volatile Node<AnyType> left;     // Left child
+        volatile Node<AnyType> right;    // Right child
+    }
+
+    private static final int OPTIMISTIC_ATTEMPTS = 3;
+
+    private final StampedLock lock = new StampedLock( );
+
+      /** The tree root. */
+    private volatile Node<AnyType> root;
+    private volatile int count;      // Number of items; written under the lock
+}
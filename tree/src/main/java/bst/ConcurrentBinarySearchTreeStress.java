@@ -0,0 +1,164 @@
+package bst;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ConcurrentBinarySearchTreeStress class
+//
+// Usage: java bst.ConcurrentBinarySearchTreeStress [ seconds ]
+//   seconds per run defaults to 2
+//
+// Part 1 checks correctness under contention. Even keys are inserted once
+// and never removed; odd keys are inserted, removed and rotated around by
+// writer threads. Every contains of an even key must succeed, including
+// while a two-child remove is copying a successor item over a node.
+//
+// Part 2 measures throughput with 95% contains and 5% insert/remove
+// for 1 to 32 threads.
+
+/**
+ * Stress test and scaling benchmark for ConcurrentBinarySearchTree.
+ */
+public class ConcurrentBinarySearchTreeStress
+{
+    private static final int KEYS = 1 << 16;
+    private static final int [ ] THREADS = { 1, 2, 4, 8, 16, 32 };
+
+    public static void main( String [ ] args ) throws InterruptedException
+    {
+        long millis = ( args.length > 0 ? Long.parseLong( args[ 0 ] ) : 2 ) * 1000;
+
+        System.out.println( "/******************************/" );
+        System.out.println( "Stress test" );
+        long misses = stress( 8, millis );
+        System.out.println( misses == 0 ? "No stable key was ever missed."
+                                        : "Stable keys missed: " + misses + " ERROR!" );
+        System.out.println( "/******************************/" );
+
+        System.out.println( "/******************************/" );
+        System.out.println( "Scaling, 95% contains" );
+        for( int threads : THREADS )
+            System.out.printf( "%2d threads: %,14.0f ops/s%n", threads, throughput( threads, millis ) );
+        System.out.println( "/******************************/" );
+    }
+
+    /**
+     * Run half the threads as writers churning odd keys and half as readers
+     * probing even keys.
+     * @return the number of even keys reported missing.
+     */
+    private static long stress( int threads, long millis ) throws InterruptedException
+    {
+        ConcurrentBinarySearchTree<Integer> t = filledTree( );
+        AtomicBoolean done = new AtomicBoolean( );
+        AtomicLong misses = new AtomicLong( );
+        Thread [ ] workers = new Thread[ threads ];
+
+        for( int i = 0; i < threads; i++ )
+        {
+            boolean writer = i % 2 == 0;
+            workers[ i ] = new Thread( ( ) -> {
+                ThreadLocalRandom r = ThreadLocalRandom.current( );
+                while( !done.get( ) )
+                {
+                    int x = r.nextInt( KEYS );
+                    if( !writer )
+                    {
+                        if( !t.contains( x & ~1 ) )
+                            misses.incrementAndGet( );
+                        continue;
+                    }
+                    switch( r.nextInt( 4 ) )
+                    {
+                      case 0:  t.insert( x | 1 ); break;
+                      case 1:  t.remove( x | 1 ); break;
+                      case 2:  t.rotateLeft( x ); break;
+                      default: t.rotateRight( x ); break;
+                    }
+                }
+            } );
+            workers[ i ].start( );
+        }
+
+        Thread.sleep( millis );
+        done.set( true );
+        for( Thread w : workers )
+            w.join( );
+        return misses.get( );
+    }
+
+    /**
+     * Measure combined operations per second across the given threads.
+     */
+    private static double throughput( int threads, long millis ) throws InterruptedException
+    {
+        ConcurrentBinarySearchTree<Integer> t = filledTree( );
+        AtomicBoolean done = new AtomicBoolean( );
+        AtomicLong ops = new AtomicLong( );
+        CountDownLatch start = new CountDownLatch( 1 );
+        Thread [ ] workers = new Thread[ threads ];
+
+        for( int i = 0; i < threads; i++ )
+        {
+            workers[ i ] = new Thread( ( ) -> {
+                ThreadLocalRandom r = ThreadLocalRandom.current( );
+                long n = 0;
+                try
+                {
+                    start.await( );
+                }
+                catch( InterruptedException e )
+                {
+                    return;
+                }
+                while( !done.get( ) )
+                {
+                    int x = r.nextInt( KEYS );
+                    int op = r.nextInt( 100 );
+                    if( op < 95 )
+                        t.contains( x );
+                    else if( op < 98 )
+                        t.insert( x );
+                    else
+                        t.remove( x );
+                    n++;
+                }
+                ops.addAndGet( n );
+            } );
+            workers[ i ].start( );
+        }
+
+        start.countDown( );
+        Thread.sleep( millis );
+        done.set( true );
+        for( Thread w : workers )
+            w.join( );
+        return ops.get( ) * 1000.0 / millis;
+    }
+
+    /**
+     * Build a tree of all even keys and half the odd keys, inserted in
+     * random order so the tree is reasonably shallow.
+     */
+    private static ConcurrentBinarySearchTree<Integer> filledTree( )
+    {
+        ConcurrentBinarySearchTree<Integer> t = new ConcurrentBinarySearchTree<>( );
+        ThreadLocalRandom r = ThreadLocalRandom.current( );
+        int [ ] keys = new int[ KEYS ];
+        for( int i = 0; i < KEYS; i++ )
+            keys[ i ] = i;
+        for( int i = KEYS - 1; i > 0; i-- )
+        {
+            int j = r.nextInt( i + 1 );
+            int tmp = keys[ i ];
+            keys[ i ] = keys[ j ];
+            keys[ j ] = tmp;
+        }
+        for( int x : keys )
+            if( x % 2 == 0 || r.nextBoolean( ) )
+                t.insert( x );
+        return t;
+    }
+}
@@ -0,0 +1,617 @@
+package bst;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+
+// DurableBinarySearchTree class
+//
+// CONSTRUCTION: with a directory, and optionally a Balance policy,
+//               the number of records that may be lost in a crash,
+//               and the number of records between checkpoints
+//
+// ******************PUBLIC OPERATIONS*********************
+// void insert( x )       --> Insert x
+// void remove( x )       --> Remove x
+// void rotateRight( x )  --> Rotate right at the node holding x
+// void rotateLeft( x )   --> Rotate left at the node holding x
+// void makeEmpty( )      --> Remove all items
+// boolean contains( x )  --> Return true if x is present
+// int findMin( )         --> Return smallest item
+// int findMax( )         --> Return largest item
+// boolean isEmpty( )     --> Return true if empty; else false
+// int nodeCount( )       --> Return number of items
+// void printTree( )      --> Print tree in sorted order
+// void printLevels( )    --> Print tree level by level
+// void sync( )           --> Make every change so far durable
+// void checkpoint( )     --> Save a snapshot and start a new log
+// void close( )          --> Sync and release the log
+// ******************ERRORS********************************
+// Throws UnderflowException as appropriate
+// Throws IOException if the log or a checkpoint cannot be written
+// Throws IllegalStateException once closed
+
+/**
+ * Implements a binary search tree of int keys whose changes survive a
+ * crash. The tree itself is an in-memory BinarySearchTree; every change
+ * that takes effect is also appended to a write-ahead log, and every so
+ * often the whole tree is saved as a snapshot and the log restarts.
+ * Opening a directory recovers the tree by loading the latest snapshot
+ * and replaying the log records written after it.
+ * <p>
+ * A log record is 9 bytes: an operation code, the key, and a CRC32C of
+ * both, so a record torn by a crash is detected and dropped on recovery.
+ * Records collect in a buffer and are written and forced to the device
+ * in groups. With maxUnsynced 0 each change is durable when its call
+ * returns; concurrent callers then share one fsync, because whoever
+ * syncs writes out every record buffered so far (group commit). With
+ * maxUnsynced n, a sync happens once more than n records are pending,
+ * so a crash loses at most n changes.
+ * <p>
+ * A checkpoint takes an O(1) copy-on-write copy of the tree under the
+ * lock, switches to a new log, and saves the copy while other threads
+ * keep updating. The files of generation g are checkpoint-g.snapshot and
+ * log-g.wal; a snapshot is renamed into place only once complete, and
+ * older files are deleted only after that.
+ * All methods are thread-safe.
+ */
+public class DurableBinarySearchTree implements AutoCloseable
+{
+    /**
+     * Open or create a durable tree in which every change is durable
+     * when its call returns.
+     * @param dir the directory holding the snapshot and log files.
+     * @throws IOException if the directory cannot be read or recovered.
+     */
+    public DurableBinarySearchTree( Path dir ) throws IOException
+    {
+        this( dir, BinarySearchTree.Balance.NONE, 0, DEFAULT_CHECKPOINT_EVERY );
+    }
+
+    /**
+     * Open or create a durable tree.
+     * @param dir the directory holding the snapshot and log files.
+     * @param balance the policy of a new tree; a recovered tree keeps
+     *        the policy it was saved with.
+     * @param maxUnsynced the number of changes that may be lost in a
+     *        crash; 0 makes every change durable before its call returns.
+     * @param checkpointEvery the number of log records after which a
+     *        checkpoint is taken automatically; 0 for never.
+     * @throws IOException if the directory cannot be read or recovered.
+     */
+    public DurableBinarySearchTree( Path dir, BinarySearchTree.Balance balance,
+                                    int maxUnsynced, long checkpointEvery ) throws IOException
+    {
+        this.dir = dir;
+        this.maxUnsynced = maxUnsynced;
+        this.checkpointEvery = checkpointEvery;
+        Files.createDirectories( dir );
+        recover( balance );
+    }
+
+    /**
+     * Insert into the tree; duplicates are ignored.
+     * @param x the item to insert.
+     * @throws IOException if the log cannot be written.
+     */
+    public void insert( int x ) throws IOException
+    {
+        log( INSERT, x );
+    }
+
+    /**
+     * Remove from the tree. Nothing is done if x is not found.
+     * @param x the item to remove.
+     * @throws IOException if the log cannot be written.
+     */
+    public void remove( int x ) throws IOException
+    {
+        log( REMOVE, x );
+    }
+
+    /**
+     * Perform a single right rotation at the node holding x.
+     * Nothing is done if x is absent or has no left child.
+     * @param x the item whose node is rotated.
+     * @throws IOException if the log cannot be written.
+     */
+    public void rotateRight( int x ) throws IOException
+    {
+        log( ROTATE_RIGHT, x );
+    }
+
+    /**
+     * Perform a single left rotation at the node holding x.
+     * Nothing is done if x is absent or has no right child.
+     * @param x the item whose node is rotated.
+     * @throws IOException if the log cannot be written.
+     */
+    public void rotateLeft( int x ) throws IOException
+    {
+        log( ROTATE_LEFT, x );
+    }
+
+    /**
+     * Make the tree logically empty.
+     * @throws IOException if the log cannot be written.
+     */
+    public void makeEmpty( ) throws IOException
+    {
+        log( MAKE_EMPTY, 0 );
+    }
+
+    /**
+     * Find an item in the tree.
+     * @param x the item to search for.
+     * @return true if found.
+     */
+    public synchronized boolean contains( int x )
+    {
+        checkOpen( );
+        return tree.contains( x );
+    }
+
+    /**
+     * Find the smallest item in the tree.
+     * @return smallest item.
+     */
+    public synchronized int findMin( )
+    {
+        checkOpen( );
+        return tree.findMin( );
+    }
+
+    /**
+     * Find the largest item in the tree.
+     * @return the largest item.
+     */
+    public synchronized int findMax( )
+    {
+        checkOpen( );
+        return tree.findMax( );
+    }
+
+    /**
+     * Test if the tree is logically empty.
+     * @return true if empty, false otherwise.
+     */
+    public synchronized boolean isEmpty( )
+    {
+        checkOpen( );
+        return tree.isEmpty( );
+    }
+
+    /**
+     * Return the number of items in the tree.
+     * @return the number of items.
+     */
+    public synchronized int nodeCount( )
+    {
+        checkOpen( );
+        return tree.nodeCount( );
+    }
+
+    /**
+     * Print the tree contents in sorted order.
+     */
+    public synchronized void printTree( )
+    {
+        checkOpen( );
+        tree.printTree( );
+    }
+
+    /**
+     * Print the tree one level per line, left to right.
+     */
+    public synchronized void printLevels( )
+    {
+        checkOpen( );
+        tree.printLevels( );
+    }
+
+    /**
+     * Make every change made so far durable.
+     * @throws IOException if the log cannot be written.
+     */
+    public void sync( ) throws IOException
+    {
+        long lsn;
+        synchronized( this )
+        {
+            checkOpen( );
+            lsn = appended;
+        }
+        sync( lsn );
+    }
+
+    /**
+     * Save a snapshot of the tree and start a new log. Updates are held
+     * up only while the current log is forced and the tree is copied in
+     * O(1); the snapshot itself is written while they continue.
+     * @throws IOException if the log or the snapshot cannot be written.
+     */
+    public void checkpoint( ) throws IOException
+    {
+        synchronized( checkpointLock )
+        {
+            BinarySearchTree<Integer> snapshot;
+            long newGeneration;
+            synchronized( syncLock )
+            {
+                synchronized( this )
+                {
+                    checkOpen( );
+                    writeAndForce( pending );
+                    durable = appended;
+
+                    snapshot = tree.isEmpty( ) ? new BinarySearchTree<>( tree.balance( ) ) : tree.copy( );
+                    newGeneration = generation + 1;
+                    FileChannel newLog = openLog( newGeneration );
+                    log.close( );
+                    log = newLog;
+                    generation = newGeneration;
+                    sinceCheckpoint = 0;
+                }
+            }
+
+            Path temp = dir.resolve( CHECKPOINT_PREFIX + name( newGeneration ) + TEMP_SUFFIX );
+            BinarySearchTree.save( snapshot, temp );
+            Files.move( temp, checkpointFile( newGeneration ), StandardCopyOption.ATOMIC_MOVE );
+            forceDirectory( );
+            deleteBefore( newGeneration );
+        }
+    }
+
+    /**
+     * Make every change durable and release the log.
+     * Further use of the tree throws IllegalStateException.
+     * @throws IOException if the log cannot be written.
+     */
+    @Override
+    public void close( ) throws IOException
+    {
+        synchronized( checkpointLock )
+        {
+            synchronized( syncLock )
+            {
+                synchronized( this )
+                {
+                    if( closed )
+                        return;
+                    try
+                    {
+                        if( failure == null )
+                        {
+                            writeAndForce( pending );
+                            durable = appended;
+                        }
+                    }
+                    finally
+                    {
+                        closed = true;
+                        log.close( );
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Internal method to apply a change, append it to the log if it
+     * took effect, then sync and checkpoint as the policy requires.
+     */
+    private void log( byte op, int x ) throws IOException
+    {
+        long lsn;
+        boolean checkpointDue;
+        synchronized( this )
+        {
+            checkOpen( );
+            if( failure != null )
+                throw new IOException( "log failed earlier", failure );
+            if( !apply( op, x ) )
+                return;     // No change; nothing to log
+
+            if( pending.remaining( ) < RECORD_BYTES )
+                pending = grow( pending );
+            int p = pending.position( );
+            pending.put( op ).putInt( x );
+            checksum.reset( );
+            checksum.update( pending.array( ), p, 5 );
+            pending.putInt( (int) checksum.getValue( ) );
+
+            lsn = ++appended;
+            checkpointDue = checkpointEvery > 0 && ++sinceCheckpoint >= checkpointEvery;
+        }
+
+        if( lsn - durable > maxUnsynced )
+            sync( lsn );
+        if( checkpointDue )
+            checkpoint( );
+    }
+
+    /**
+     * Internal method to apply one logged change to the tree.
+     * @return true if the change must be logged.
+     */
+    private boolean apply( byte op, int x ) throws IOException
+    {
+        int before = tree.nodeCount( );
+        switch( op )
+        {
+          case INSERT:
+            tree.insert( x );
+            return tree.nodeCount( ) != before;
+          case REMOVE:
+            tree.remove( x );
+            return tree.nodeCount( ) != before;
+          case ROTATE_RIGHT:
+            tree.rotateRight( x );
+            return true;
+          case ROTATE_LEFT:
+            tree.rotateLeft( x );
+            return true;
+          case MAKE_EMPTY:
+            tree.makeEmpty( );
+            return true;
+          default:
+            throw new IOException( "unknown log record " + op );
+        }
+    }
+
+    /**
+     * Internal method to make the records up to lsn durable. Only one
+     * thread syncs at a time, and it writes every record buffered so far,
+     * so threads that wait here usually find their record already durable.
+     */
+    private void sync( long lsn ) throws IOException
+    {
+        synchronized( syncLock )
+        {
+            if( durable >= lsn )
+                return;     // Another thread's sync covered this record
+
+            ByteBuffer full;
+            long upTo;
+            synchronized( this )
+            {
+                checkOpen( );
+                full = pending;
+                pending = spare;
+                spare = null;
+                upTo = appended;
+            }
+            writeAndForce( full );
+            synchronized( this )
+            {
+                spare = full;
+            }
+            durable = upTo;
+        }
+    }
+
+    /**
+     * Write out and clear a buffer of records, then force the log.
+     * Called with syncLock held. A failure is remembered, and from then
+     * on every change is refused, because the tree may now hold changes
+     * that the log does not.
+     */
+    private void writeAndForce( ByteBuffer buf ) throws IOException
+    {
+        try
+        {
+            buf.flip( );
+            while( buf.hasRemaining( ) )
+                log.write( buf );
+            buf.clear( );
+            log.force( false );
+        }
+        catch( IOException e )
+        {
+            failure = e;
+            throw e;
+        }
+    }
+
+    /**
+     * Internal method to rebuild the tree from the directory. The newest
+     * snapshot is loaded and every log of that generation or later is
+     * replayed in order. A torn record can only be at the end of the last
+     * log, which is truncated there and appended to from then on.
+     */
+    private void recover( BinarySearchTree.Balance balance ) throws IOException
+    {
+        List<Long> checkpoints = new ArrayList<>( );
+        List<Long> logs = new ArrayList<>( );
+        try( DirectoryStream<Path> files = Files.newDirectoryStream( dir ) )
+        {
+            for( Path file : files )
+            {
+                Matcher m = FILE_NAME.matcher( file.getFileName( ).toString( ) );
+                if( !m.matches( ) )
+                    continue;
+                if( m.group( 3 ) != null )
+                    Files.delete( file );   // Unfinished snapshot
+                else if( m.group( 1 ).equals( CHECKPOINT_PREFIX ) )
+                    checkpoints.add( Long.parseLong( m.group( 2 ) ) );
+                else
+                    logs.add( Long.parseLong( m.group( 2 ) ) );
+            }
+        }
+        Collections.sort( logs );
+
+        generation = checkpoints.isEmpty( ) ? 0 : Collections.max( checkpoints );
+        tree = checkpoints.isEmpty( ) ? new BinarySearchTree<>( balance )
+                                      : BinarySearchTree.load( checkpointFile( generation ) );
+        deleteBefore( generation );
+
+        logs.removeIf( g -> g < generation );
+        if( logs.isEmpty( ) )
+            logs.add( generation );
+        for( int i = 0; i < logs.size( ); i++ )
+        {
+            long g = logs.get( i );
+            boolean last = i == logs.size( ) - 1;
+            FileChannel channel = openLog( g );
+            long valid = replay( channel, g, last );
+            if( last )
+            {
+                channel.truncate( valid );
+                channel.position( valid );
+                log = channel;
+                generation = g;
+            }
+            else
+                channel.close( );
+        }
+    }
+
+    /**
+     * Internal method to apply the records of one log to the tree.
+     * @param channel the log.
+     * @param g the generation of the log.
+     * @param last true if this is the newest log, which may end in a torn record.
+     * @return the length of the log up to the last good record.
+     */
+    private long replay( FileChannel channel, long g, boolean last ) throws IOException
+    {
+        long length = channel.size( );
+        if( length > Integer.MAX_VALUE )
+            throw new IOException( "log too large" );
+        ByteBuffer data = ByteBuffer.allocate( (int) length ).order( ORDER );
+        while( data.hasRemaining( ) && channel.read( data, data.position( ) ) >= 0 )
+            ;
+        byte [ ] bytes = data.array( );
+
+        int p = 0;
+        for( ; p + RECORD_BYTES <= length; p += RECORD_BYTES )
+        {
+            checksum.reset( );
+            checksum.update( bytes, p, 5 );
+            if( data.getInt( p + 5 ) != (int) checksum.getValue( ) )
+                break;
+            apply( data.get( p ), data.getInt( p + 1 ) );
+            appended++;
+            sinceCheckpoint++;
+        }
+        if( p != length && !last )
+            throw new IOException( "corrupt log of generation " + g );
+        durable = appended;
+        return p;
+    }
+
+    private FileChannel openLog( long g ) throws IOException
+    {
+        return FileChannel.open( dir.resolve( LOG_PREFIX + name( g ) + LOG_SUFFIX ),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE );
+    }
+
+    private Path checkpointFile( long g )
+    {
+        return dir.resolve( CHECKPOINT_PREFIX + name( g ) + CHECKPOINT_SUFFIX );
+    }
+
+    /**
+     * Delete the snapshots and logs of generations before g.
+     */
+    private void deleteBefore( long g ) throws IOException
+    {
+        try( DirectoryStream<Path> files = Files.newDirectoryStream( dir ) )
+        {
+            for( Path file : files )
+            {
+                Matcher m = FILE_NAME.matcher( file.getFileName( ).toString( ) );
+                if( m.matches( ) && m.group( 3 ) == null && Long.parseLong( m.group( 2 ) ) < g )
+                    Files.delete( file );
+            }
+        }
+    }
+
+    /**
+     * Force the directory itself, so a rename survives a crash. Some
+     * platforms cannot open a directory as a channel; there the rename
+     * is as durable as the file system makes it.
+     */
+    private void forceDirectory( )
+    {
+        try( FileChannel d = FileChannel.open( dir, StandardOpenOption.READ ) )
+        {
+            d.force( true );
+        }
+        catch( IOException e )
+        {
+            // Not supported here
+        }
+    }
+
+    private static String name( long g )
+    {
+        return String.format( "%016d", g );
+    }
+
+    private static ByteBuffer grow( ByteBuffer buf )
+    {
+        ByteBuffer bigger = ByteBuffer.allocate( buf.capacity( ) * 2 ).order( ORDER );
+        buf.flip( );
+        bigger.put( buf );
+        return bigger;
+    }
+
+    private void checkOpen( )
+    {
+        if( closed )
+            throw new IllegalStateException( "tree is closed" );
+    }
+
+        // Log record operation codes
+    private static final byte INSERT       = 1;
+    private static final byte REMOVE       = 2;
+    private static final byte ROTATE_RIGHT = 3;
+    private static final byte ROTATE_LEFT  = 4;
+    private static final byte MAKE_EMPTY   = 5;
+
+    private static final int RECORD_BYTES = 9;     // Operation, key, CRC32C
+    private static final int BUFFER_BYTES = 1 << 12;
+    private static final long DEFAULT_CHECKPOINT_EVERY = 1 << 20;
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final String CHECKPOINT_PREFIX = "checkpoint-";
+    private static final String CHECKPOINT_SUFFIX = ".snapshot";
+    private static final String LOG_PREFIX = "log-";
+    private static final String LOG_SUFFIX = ".wal";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final Pattern FILE_NAME =
+        Pattern.compile( "(checkpoint-|log-)(\\d+)(?:\\.snapshot|\\.wal|(\\.tmp))" );
+
+    private final Path dir;
+    private final int maxUnsynced;
+    private final long checkpointEvery;
+    private final Object syncLock = new Object( );       // Held while writing the log
+    private final Object checkpointLock = new Object( ); // Held for a whole checkpoint
+    private final CRC32C checksum = new CRC32C( );       // Guarded by this
+
+        // Guarded by this
+    private BinarySearchTree<Integer> tree;
+    private ByteBuffer pending = ByteBuffer.allocate( BUFFER_BYTES ).order( ORDER );
+    private ByteBuffer spare = ByteBuffer.allocate( BUFFER_BYTES ).order( ORDER );
+    private long appended;          // Records appended, including replayed ones
+    private long sinceCheckpoint;   // Records in the current generation
+    private long generation;        // Generation of the current log
+    private boolean closed;
+
+    private FileChannel log;                // Current log; replaced under syncLock and this
+    private volatile long durable;          // Records known to be on the device
+    private volatile IOException failure;   // First log write failure, if any
+}
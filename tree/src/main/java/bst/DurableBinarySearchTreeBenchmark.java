@@ -0,0 +1,99 @@
+package bst;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// DurableBinarySearchTreeBenchmark class
+//
+// Usage: java bst.DurableBinarySearchTreeBenchmark [ seconds ]
+//   seconds per run defaults to 2
+//
+// Measures insert throughput of DurableBinarySearchTree against the
+// in-memory BinarySearchTree. Durable-on-return runs use several threads
+// to show group commit sharing each fsync; batched runs let up to n
+// changes wait for the next fsync.
+
+/**
+ * Throughput benchmark for DurableBinarySearchTree.
+ */
+public class DurableBinarySearchTreeBenchmark
+{
+    private static final int [ ] THREADS = { 1, 4, 16, 64 };
+    private static final int [ ] MAX_UNSYNCED = { 100, 10000, 1000000 };
+
+    public static void main( String [ ] args ) throws Exception
+    {
+        long millis = ( args.length > 0 ? Long.parseLong( args[ 0 ] ) : 2 ) * 1000;
+
+        System.out.println( "/******************************/" );
+        System.out.printf( "%-32s %,12.0f inserts/s%n", "in memory:", inMemory( millis ) );
+        for( int threads : THREADS )
+            System.out.printf( "%-32s %,12.0f inserts/s%n", "durable on return, " + threads + " threads:",
+                               durable( 0, threads, millis ) );
+        for( int maxUnsynced : MAX_UNSYNCED )
+            System.out.printf( "%-32s %,12.0f inserts/s%n", "fsync every " + maxUnsynced + ":",
+                               durable( maxUnsynced, 1, millis ) );
+        System.out.println( "/******************************/" );
+    }
+
+    private static double inMemory( long millis )
+    {
+        BinarySearchTree<Integer> t = new BinarySearchTree<>( BinarySearchTree.Balance.AVL );
+        long n = 0;
+        long end = System.currentTimeMillis( ) + millis;
+        while( System.currentTimeMillis( ) < end )
+            for( int i = 0; i < 1000; i++ )
+                t.insert( (int) n++ );
+        return n * 1000.0 / millis;
+    }
+
+    /**
+     * Insert distinct keys from the given number of threads into a fresh
+     * durable tree for the given time.
+     * @return inserts per second across all threads.
+     */
+    private static double durable( int maxUnsynced, int threads, long millis ) throws Exception
+    {
+        Path dir = Files.createTempDirectory( "durable" );
+        AtomicLong ops = new AtomicLong( );
+        try( DurableBinarySearchTree t = new DurableBinarySearchTree( dir, BinarySearchTree.Balance.AVL,
+                                                                      maxUnsynced, 1 << 20 ) )
+        {
+            long end = System.currentTimeMillis( ) + millis;
+            Thread [ ] workers = new Thread[ threads ];
+            for( int i = 0; i < threads; i++ )
+            {
+                int base = i << 24;
+                workers[ i ] = new Thread( ( ) -> {
+                    int n = 0;
+                    try
+                    {
+                        while( System.currentTimeMillis( ) < end )
+                            t.insert( base + n++ );
+                    }
+                    catch( IOException e )
+                    {
+                        throw new UncheckedIOException( e );
+                    }
+                    ops.addAndGet( n );
+                } );
+                workers[ i ].start( );
+            }
+            for( Thread w : workers )
+                w.join( );
+        }
+        finally
+        {
+            try( Stream<Path> files = Files.walk( dir ) )
+            {
+                files.sorted( Comparator.reverseOrder( ) ).forEach( p -> p.toFile( ).delete( ) );
+            }
+        }
+        return ops.get( ) * 1000.0 / millis;
+    }
+}
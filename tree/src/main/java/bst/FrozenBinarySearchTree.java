@@ -0,0 +1,247 @@
+package bst;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// FrozenBinarySearchTree class
+//
+// CONSTRUCTION: by BinarySearchTree.freeze( )
+//
+// ******************PUBLIC OPERATIONS*********************
+// boolean contains( x )  --> Return true if x is present
+// Comparable findMin( )  --> Return smallest item
+// Comparable findMax( )  --> Return largest item
+// Comparable floor( x )  --> Return largest item <= x, or null
+// Comparable ceiling( x )--> Return smallest item >= x, or null
+// boolean isEmpty( )     --> Return true if empty; else false
+// int nodeCount( )       --> Return number of items
+// Iterator iterator( )   --> Iterate in sorted order
+// void printTree( )      --> Print tree in sorted order
+// ******************ERRORS********************************
+// Throws UnderflowException as appropriate
+
+/**
+ * Implements an immutable binary search tree packed into one array in
+ * Eytzinger (breadth-first) order: the root is at index 1 and the
+ * children of index k are at 2k and 2k + 1. There are no child links
+ * to chase. The top levels of every search share the first few cache
+ * lines of the array, and a search is a loop of array reads whose next
+ * index is computed without a branch.
+ * <p>
+ * The tree is complete, so its height is the minimum possible, whatever
+ * the shape of the tree it was frozen from.
+ * Note that all "matching" is based on the compareTo method.
+ */
+public class FrozenBinarySearchTree<AnyType extends Comparable<? super AnyType>> implements Iterable<AnyType>
+{
+    /**
+     * Construct the tree from items in strictly increasing order.
+     * @param items the items.
+     * @param n the number of items.
+     */
+    FrozenBinarySearchTree( Iterator<? extends AnyType> items, int n )
+    {
+        size = n;
+        array = new Object[ n + 1 ];
+        for( int k = first( ); k != 0; k = successor( k ) )
+            array[ k ] = items.next( );
+    }
+
+    /**
+     * Find an item in the tree.
+     * @param x the item to search for.
+     * @return true if found.
+     */
+    public boolean contains( AnyType x )
+    {
+        int k = lowerBound( x );
+        return k != 0 && x.compareTo( item( k ) ) == 0;
+    }
+
+    /**
+     * Find the smallest item in the tree.
+     * @return smallest item.
+     */
+    public AnyType findMin( )
+    {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        return item( first( ) );
+    }
+
+    /**
+     * Find the largest item in the tree.
+     * @return the largest item.
+     */
+    public AnyType findMax( )
+    {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        return item( last( ) );
+    }
+
+    /**
+     * Find the largest item less than or equal to x.
+     * @param x the item to search for.
+     * @return the item, or null if there is none.
+     */
+    public AnyType floor( AnyType x )
+    {
+        int k = lowerBound( x );
+        if( k != 0 && x.compareTo( item( k ) ) == 0 )
+            return item( k );
+        k = k == 0 ? last( ) : predecessor( k );
+        return k == 0 ? null : item( k );
+    }
+
+    /**
+     * Find the smallest item greater than or equal to x.
+     * @param x the item to search for.
+     * @return the item, or null if there is none.
+     */
+    public AnyType ceiling( AnyType x )
+    {
+        int k = lowerBound( x );
+        return k == 0 ? null : item( k );
+    }
+
+    /**
+     * Test if the tree is logically empty.
+     * @return true if empty, false otherwise.
+     */
+    public boolean isEmpty( )
+    {
+        return size == 0;
+    }
+
+    /**
+     * Return the number of items in the tree.
+     * @return the number of items.
+     */
+    public int nodeCount( )
+    {
+        return size;
+    }
+
+    /**
+     * Return an iterator over the items in sorted order.
+     * @return the iterator.
+     */
+    @Override
+    public Iterator<AnyType> iterator( )
+    {
+        return new Iterator<AnyType>( )
+        {
+            public boolean hasNext( )
+            {
+                return k != 0;
+            }
+
+            public AnyType next( )
+            {
+                if( k == 0 )
+                    throw new NoSuchElementException( );
+                AnyType x = item( k );
+                k = successor( k );
+                return x;
+            }
+
+            private int k = first( );
+        };
+    }
+
+    /**
+     * Print the tree contents in sorted order.
+     */
+    public void printTree( )
+    {
+        if( isEmpty( ) )
+            System.out.println( "Empty tree" );
+        for( AnyType x : this )
+            System.out.println( x );
+    }
+
+    /**
+     * Internal method to find the smallest item not less than x.
+     * The descent records each turn in the low bit of k; at the end the
+     * trailing right turns, and the left turn above them, are undone
+     * to reach the last node where the search went left.
+     * @return its index, or 0 if every item is less than x.
+     */
+    private int lowerBound( AnyType x )
+    {
+        int k = 1;
+        while( k <= size )
+            k = 2 * k + ( item( k ).compareTo( x ) < 0 ? 1 : 0 );
+        return k >>> ( Integer.numberOfTrailingZeros( ~k ) + 1 );
+    }
+
+    /**
+     * Return the index of the smallest item, or 0 if empty.
+     */
+    private int first( )
+    {
+        if( size == 0 )
+            return 0;
+        int k = 1;
+        while( 2 * k <= size )
+            k = 2 * k;
+        return k;
+    }
+
+    /**
+     * Return the index of the largest item, or 0 if empty.
+     */
+    private int last( )
+    {
+        if( size == 0 )
+            return 0;
+        int k = 1;
+        while( 2 * k + 1 <= size )
+            k = 2 * k + 1;
+        return k;
+    }
+
+    /**
+     * Return the index of the next item in sorted order, or 0 if none.
+     */
+    private int successor( int k )
+    {
+        if( 2 * k + 1 <= size )
+        {
+            k = 2 * k + 1;
+            while( 2 * k <= size )
+                k = 2 * k;
+            return k;
+        }
+        while( ( k & 1 ) == 1 )     // Climb out of right subtrees
+            k >>>= 1;
+        return k >>> 1;
+    }
+
+    /**
+     * Return the index of the previous item in sorted order, or 0 if none.
+     */
+    private int predecessor( int k )
+    {
+        if( 2 * k <= size )
+        {
+            k = 2 * k;
+            while( 2 * k + 1 <= size )
+                k = 2 * k + 1;
+            return k;
+        }
+        while( k > 1 && ( k & 1 ) == 0 )   // Climb out of left subtrees
+            k >>>= 1;
+        return k >>> 1;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private AnyType item( int k )
+    {
+        return (AnyType) array[ k ];
+    }
+
+    private final Object [ ] array;     // Items in Eytzinger order; index 0 unused
+    private final int size;
+}
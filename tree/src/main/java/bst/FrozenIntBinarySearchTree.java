@@ -0,0 +1,242 @@
+package bst;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+// FrozenIntBinarySearchTree class
+//
+// CONSTRUCTION: by IntBinarySearchTree.freeze( )
+//
+// ******************PUBLIC OPERATIONS*********************
+// boolean contains( x )  --> Return true if x is present
+// int findMin( )         --> Return smallest item
+// int findMax( )         --> Return largest item
+// int floor( x )         --> Return largest item <= x
+// int ceiling( x )       --> Return smallest item >= x
+// boolean isEmpty( )     --> Return true if empty; else false
+// int nodeCount( )       --> Return number of items
+// iterator( )            --> Iterate in sorted order
+// void printTree( )      --> Print tree in sorted order
+// ******************ERRORS********************************
+// Throws UnderflowException as appropriate
+// Throws NoSuchElementException if floor or ceiling has no answer
+
+/**
+ * Implements an immutable binary search tree of int keys packed into one
+ * int array in Eytzinger (breadth-first) order, as FrozenBinarySearchTree
+ * does for objects. The keys are stored inline, so a search touches only
+ * the array: about one cache line per level below the first few, with
+ * the next index computed without a branch.
+ */
+public class FrozenIntBinarySearchTree
+{
+    /**
+     * Construct the tree from keys in strictly increasing order.
+     * @param sorted the keys.
+     * @param n the number of keys.
+     */
+    FrozenIntBinarySearchTree( int [ ] sorted, int n )
+    {
+        size = n;
+        array = new int[ n + 1 ];
+        int i = 0;
+        for( int k = first( ); k != 0; k = successor( k ) )
+            array[ k ] = sorted[ i++ ];
+    }
+
+    /**
+     * Find an item in the tree.
+     * @param x the item to search for.
+     * @return true if found.
+     */
+    public boolean contains( int x )
+    {
+        int k = lowerBound( x );
+        return k != 0 && array[ k ] == x;
+    }
+
+    /**
+     * Find the smallest item in the tree.
+     * @return smallest item.
+     */
+    public int findMin( )
+    {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        return array[ first( ) ];
+    }
+
+    /**
+     * Find the largest item in the tree.
+     * @return the largest item.
+     */
+    public int findMax( )
+    {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        return array[ last( ) ];
+    }
+
+    /**
+     * Find the largest item less than or equal to x.
+     * @param x the item to search for.
+     * @return the item.
+     * @throws NoSuchElementException if every item is greater than x.
+     */
+    public int floor( int x )
+    {
+        int k = lowerBound( x );
+        if( k == 0 || array[ k ] != x )
+            k = k == 0 ? last( ) : predecessor( k );
+        if( k == 0 )
+            throw new NoSuchElementException( );
+        return array[ k ];
+    }
+
+    /**
+     * Find the smallest item greater than or equal to x.
+     * @param x the item to search for.
+     * @return the item.
+     * @throws NoSuchElementException if every item is less than x.
+     */
+    public int ceiling( int x )
+    {
+        int k = lowerBound( x );
+        if( k == 0 )
+            throw new NoSuchElementException( );
+        return array[ k ];
+    }
+
+    /**
+     * Test if the tree is logically empty.
+     * @return true if empty, false otherwise.
+     */
+    public boolean isEmpty( )
+    {
+        return size == 0;
+    }
+
+    /**
+     * Return the number of items in the tree.
+     * @return the number of items.
+     */
+    public int nodeCount( )
+    {
+        return size;
+    }
+
+    /**
+     * Return an iterator over the items in sorted order.
+     * @return the iterator.
+     */
+    public PrimitiveIterator.OfInt iterator( )
+    {
+        return new PrimitiveIterator.OfInt( )
+        {
+            public boolean hasNext( )
+            {
+                return k != 0;
+            }
+
+            public int nextInt( )
+            {
+                if( k == 0 )
+                    throw new NoSuchElementException( );
+                int x = array[ k ];
+                k = successor( k );
+                return x;
+            }
+
+            private int k = first( );
+        };
+    }
+
+    /**
+     * Print the tree contents in sorted order.
+     */
+    public void printTree( )
+    {
+        if( isEmpty( ) )
+            System.out.println( "Empty tree" );
+        for( PrimitiveIterator.OfInt itr = iterator( ); itr.hasNext( ); )
+            System.out.println( itr.nextInt( ) );
+    }
+
+    /**
+     * Internal method to find the smallest item not less than x.
+     * The descent records each turn in the low bit of k; at the end the
+     * trailing right turns, and the left turn above them, are undone
+     * to reach the last node where the search went left.
+     * @return its index, or 0 if every item is less than x.
+     */
+    private int lowerBound( int x )
+    {
+        int k = 1;
+        while( k <= size )
+            k = 2 * k + ( array[ k ] < x ? 1 : 0 );
+        return k >>> ( Integer.numberOfTrailingZeros( ~k ) + 1 );
+    }
+
+    /**
+     * Return the index of the smallest item, or 0 if empty.
+     */
+    private int first( )
+    {
+        if( size == 0 )
+            return 0;
+        int k = 1;
+        while( 2 * k <= size )
+            k = 2 * k;
+        return k;
+    }
+
+    /**
+     * Return the index of the largest item, or 0 if empty.
+     */
+    private int last( )
+    {
+        if( size == 0 )
+            return 0;
+        int k = 1;
+        while( 2 * k + 1 <= size )
+            k = 2 * k + 1;
+        return k;
+    }
+
+    /**
+     * Return the index of the next item in sorted order, or 0 if none.
+     */
+    private int successor( int k )
+    {
+        if( 2 * k + 1 <= size )
+        {
+            k = 2 * k + 1;
+            while( 2 * k <= size )
+                k = 2 * k;
+            return k;
+        }
+        while( ( k & 1 ) == 1 )     // Climb out of right subtrees
+            k >>>= 1;
+        return k >>> 1;
+    }
+
+    /**
+     * Return the index of the previous item in sorted order, or 0 if none.
+     */
+    private int predecessor( int k )
+    {
+        if( 2 * k <= size )
+        {
+            k = 2 * k;
+            while( 2 * k + 1 <= size )
+                k = 2 * k + 1;
+            return k;
+        }
+        while( k > 1 && ( k & 1 ) == 0 )   // Climb out of left subtrees
+            k >>>= 1;
+        return k >>> 1;
+    }
+
+    private final int [ ] array;        // Keys in Eytzinger order; index 0 unused
+    private final int size;
+}
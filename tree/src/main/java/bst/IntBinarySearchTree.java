@@ -0,0 +1,495 @@
+package bst;
+
+import java.util.Arrays;
+
+// IntBinarySearchTree class
+//
+// CONSTRUCTION: with no initializer or an initial capacity
+//
+// ******************PUBLIC OPERATIONS*********************
+// void insert( x )       --> Insert x
+// void remove( x )       --> Remove x
+// boolean contains( x )  --> Return true if x is present
+// int findMin( )         --> Return smallest item
+// int findMax( )         --> Return largest item
+// boolean isEmpty( )     --> Return true if empty; else false
+// void makeEmpty( )      --> Remove all items
+// void printTree( )      --> Print tree in sorted order
+// int nodeCount( )       --> Return number of items
+// boolean isFull( )      --> Return true if every node has 0 or 2 children
+// copy( ), mirror( )     --> Return a copy or a mirror image
+// freeze( )              --> Return an immutable array-packed copy
+// rotateRight( x )       --> Rotate right at the node holding x
+// rotateLeft( x )        --> Rotate left at the node holding x
+// void printLevels( )    --> Print tree level by level
+// ******************ERRORS********************************
+// Throws UnderflowException as appropriate
+
+/**
+ * Implements an unbalanced binary search tree of int keys.
+ * Nodes are slots in parallel keys/left/right arrays linked by index,
+ * so there is no boxing and no per-node object. Removed slots are kept
+ * on a free list threaded through the keys array and reused by insert;
+ * once the arrays have grown to the working size nothing is allocated.
+ */
+public class IntBinarySearchTree
+{
+    /**
+     * Construct the tree.
+     */
+    public IntBinarySearchTree( )
+    {
+        this( DEFAULT_CAPACITY );
+    }
+
+    /**
+     * Construct the tree with room for the given number of nodes.
+     * @param capacity the number of nodes before the arrays must grow.
+     */
+    public IntBinarySearchTree( int capacity )
+    {
+        capacity = Math.max( capacity, 1 );
+        keys  = new int[ capacity ];
+        left  = new int[ capacity ];
+        right = new int[ capacity ];
+        makeEmpty( );
+    }
+
+    /**
+     * Insert into the tree; duplicates are ignored.
+     * @param x the item to insert.
+     */
+    public void insert( int x )
+    {
+        if( root == NIL )
+        {
+            root = allocate( x );
+            return;
+        }
+
+        int t = root;
+        for( ; ; )
+        {
+            if( x < keys[ t ] )
+            {
+                if( left[ t ] == NIL )
+                {
+                    int n = allocate( x );
+                    left[ t ] = n;
+                    return;
+                }
+                t = left[ t ];
+            }
+            else if( x > keys[ t ] )
+            {
+                if( right[ t ] == NIL )
+                {
+                    int n = allocate( x );
+                    right[ t ] = n;
+                    return;
+                }
+                t = right[ t ];
+            }
+            else
+                return;  // Duplicate; do nothing
+        }
+    }
+
+    /**
+     * Remove from the tree. Nothing is done if x is not found.
+     * @param x the item to remove.
+     */
+    public void remove( int x )
+    {
+        int parent = NIL;
+        int t = root;
+        while( t != NIL && keys[ t ] != x )
+        {
+            parent = t;
+            t = x < keys[ t ] ? left[ t ] : right[ t ];
+        }
+        if( t == NIL )
+            return;   // Item not found; do nothing
+
+        if( left[ t ] != NIL && right[ t ] != NIL ) // Two children
+        {
+            parent = t;
+            int min = right[ t ];
+            while( left[ min ] != NIL )
+            {
+                parent = min;
+                min = left[ min ];
+            }
+            keys[ t ] = keys[ min ];
+            t = min;
+        }
+
+        int replacement = left[ t ] != NIL ? left[ t ] : right[ t ];
+        replaceChild( parent, t, replacement );
+        free( t );
+    }
+
+    /**
+     * Find the smallest item in the tree.
+     * @return smallest item.
+     */
+    public int findMin( )
+    {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        int t = root;
+        while( left[ t ] != NIL )
+            t = left[ t ];
+        return keys[ t ];
+    }
+
+    /**
+     * Find the largest item in the tree.
+     * @return the largest item.
+     */
+    public int findMax( )
+    {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        int t = root;
+        while( right[ t ] != NIL )
+            t = right[ t ];
+        return keys[ t ];
+    }
+
+    /**
+     * Find an item in the tree.
+     * @param x the item to search for.
+     * @return true if found.
+     */
+    public boolean contains( int x )
+    {
+        return find( x ) != NIL;
+    }
+
+    /**
+     * Make the tree logically empty. The arrays are kept for reuse.
+     */
+    public void makeEmpty( )
+    {
+        root = NIL;
+        count = 0;
+        used = 0;
+        freeList = NIL;
+    }
+
+    /**
+     * Test if the tree is logically empty.
+     * @return true if empty, false otherwise.
+     */
+    public boolean isEmpty( )
+    {
+        return root == NIL;
+    }
+
+    /**
+     * Print the tree contents in sorted order.
+     */
+    public void printTree( )
+    {
+        if( isEmpty( ) )
+        {
+            System.out.println( "Empty tree" );
+            return;
+        }
+
+        int [ ] stack = scratch( );
+        int depth = 0;
+        int t = root;
+        while( t != NIL || depth > 0 )
+        {
+            while( t != NIL )
+            {
+                stack[ depth++ ] = t;
+                t = left[ t ];
+            }
+            t = stack[ --depth ];
+            System.out.println( keys[ t ] );
+            t = right[ t ];
+        }
+    }
+
+    /**
+     * Return the number of items in the tree.
+     * @return the number of items.
+     */
+    public int nodeCount( )
+    {
+        return count;
+    }
+
+    /**
+     * Test if every node is either a leaf or has two children.
+     * Slots on the free list have no children, so the arrays can be
+     * scanned directly without walking the tree.
+     * @return true if the tree is full.
+     */
+    public boolean isFull( )
+    {
+        for( int t = 0; t < used; t++ )
+            if( ( left[ t ] == NIL ) != ( right[ t ] == NIL ) )
+                return false;
+        return true;
+    }
+
+    /**
+     * Create a copy of the tree.
+     * @return the copy, or null if the tree is empty.
+     */
+    public IntBinarySearchTree copy( )
+    {
+        if( isEmpty( ) )
+            return null;
+        return new IntBinarySearchTree( this, false );
+    }
+
+    /**
+     * Create the mirror image of the tree, in which every left and right
+     * child is swapped.
+     * @return the mirror image, or null if the tree is empty.
+     */
+    public IntBinarySearchTree mirror( )
+    {
+        if( isEmpty( ) )
+            return null;
+        return new IntBinarySearchTree( this, true );
+    }
+
+    /**
+     * Return an immutable copy of the tree packed into an array in
+     * Eytzinger order, for trees that are read far more than changed.
+     * @return the frozen copy.
+     */
+    public FrozenIntBinarySearchTree freeze( )
+    {
+        int [ ] sorted = new int[ count ];
+        int n = 0;
+        int [ ] stack = scratch( );
+        int depth = 0;
+        int t = root;
+        while( t != NIL || depth > 0 )
+        {
+            while( t != NIL )
+            {
+                stack[ depth++ ] = t;
+                t = left[ t ];
+            }
+            t = stack[ --depth ];
+            sorted[ n++ ] = keys[ t ];
+            t = right[ t ];
+        }
+        return new FrozenIntBinarySearchTree( sorted, n );
+    }
+
+    /**
+     * Perform a single right rotation at the node holding x.
+     * Nothing is done if x is absent or has no left child.
+     * @param x the item whose node is rotated.
+     */
+    public void rotateRight( int x )
+    {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+
+        int parent = findParent( x );
+        int t = parent == NIL ? root : x < keys[ parent ] ? left[ parent ] : right[ parent ];
+        if( t == NIL || left[ t ] == NIL )
+            return;
+
+        int k1 = left[ t ];
+        left[ t ] = right[ k1 ];
+        right[ k1 ] = t;
+        replaceChild( parent, t, k1 );
+    }
+
+    /**
+     * Perform a single left rotation at the node holding x.
+     * Nothing is done if x is absent or has no right child.
+     * @param x the item whose node is rotated.
+     */
+    public void rotateLeft( int x )
+    {
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+
+        int parent = findParent( x );
+        int t = parent == NIL ? root : x < keys[ parent ] ? left[ parent ] : right[ parent ];
+        if( t == NIL || right[ t ] == NIL )
+            return;
+
+        int k2 = right[ t ];
+        right[ t ] = left[ k2 ];
+        left[ k2 ] = t;
+        replaceChild( parent, t, k2 );
+    }
+
+    /**
+     * Print the tree one level per line, left to right.
+     */
+    public void printLevels( )
+    {
+        if( isEmpty( ) )
+        {
+            System.out.println( "Empty tree" );
+            return;
+        }
+
+        int [ ] queue = scratch( );
+        int head = 0;
+        int tail = 0;
+        queue[ tail++ ] = root;
+        while( head < tail )
+        {
+            int levelEnd = tail;
+            StringBuilder line = new StringBuilder( );
+            while( head < levelEnd )
+            {
+                int t = queue[ head++ ];
+                line.append( keys[ t ] ).append( ' ' );
+                if( left[ t ] != NIL )
+                    queue[ tail++ ] = left[ t ];
+                if( right[ t ] != NIL )
+                    queue[ tail++ ] = right[ t ];
+            }
+            System.out.println( line );
+        }
+    }
+
+    /**
+     * Copy constructor; optionally swaps the left and right arrays.
+     */
+    private IntBinarySearchTree( IntBinarySearchTree other, boolean mirrored )
+    {
+        keys  = other.keys.clone( );
+        left  = ( mirrored ? other.right : other.left ).clone( );
+        right = ( mirrored ? other.left : other.right ).clone( );
+        root = other.root;
+        count = other.count;
+        used = other.used;
+        freeList = other.freeList;
+    }
+
+    /**
+     * Internal method to find the slot holding x.
+     * @return the slot, or NIL if x is not present.
+     */
+    private int find( int x )
+    {
+        int t = root;
+        while( t != NIL )
+        {
+            if( x < keys[ t ] )
+                t = left[ t ];
+            else if( x > keys[ t ] )
+                t = right[ t ];
+            else
+                return t;    // Match
+        }
+        return NIL;
+    }
+
+    /**
+     * Internal method to find the parent of the slot holding x.
+     * @return the parent slot of x, or NIL if x is at the root or the
+     * tree is empty. If x is absent, the last slot on its search path,
+     * under which x would be inserted; callers must check for a match.
+     */
+    private int findParent( int x )
+    {
+        int parent = NIL;
+        int t = root;
+        while( t != NIL && keys[ t ] != x )
+        {
+            parent = t;
+            t = x < keys[ t ] ? left[ t ] : right[ t ];
+        }
+        return parent;
+    }
+
+    /**
+     * Internal method to make sub take the place of child old under parent.
+     * A NIL parent means old is the root.
+     */
+    private void replaceChild( int parent, int old, int sub )
+    {
+        if( parent == NIL )
+            root = sub;
+        else if( left[ parent ] == old )
+            left[ parent ] = sub;
+        else
+            right[ parent ] = sub;
+    }
+
+    /**
+     * Internal method to obtain a leaf slot holding x,
+     * from the free list if possible.
+     */
+    private int allocate( int x )
+    {
+        int t;
+        if( freeList != NIL )
+        {
+            t = freeList;
+            freeList = keys[ t ];
+        }
+        else
+        {
+            if( used == keys.length )
+                grow( );
+            t = used++;
+        }
+        keys[ t ] = x;
+        left[ t ] = NIL;
+        right[ t ] = NIL;
+        count++;
+        return t;
+    }
+
+    /**
+     * Internal method to return slot t to the free list.
+     */
+    private void free( int t )
+    {
+        keys[ t ] = freeList;
+        left[ t ] = NIL;
+        right[ t ] = NIL;
+        freeList = t;
+        count--;
+    }
+
+    private void grow( )
+    {
+        int capacity = keys.length * 2;
+        keys  = Arrays.copyOf( keys, capacity );
+        left  = Arrays.copyOf( left, capacity );
+        right = Arrays.copyOf( right, capacity );
+    }
+
+    /**
+     * Return a work array large enough to hold every live slot.
+     */
+    private int [ ] scratch( )
+    {
+        if( stack == null || stack.length < count )
+            stack = new int[ keys.length ];
+        return stack;
+    }
+
+    private static final int NIL = -1;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int [ ] keys;       // The data in each slot; next free slot if free
+    private int [ ] left;       // Left child of each slot
+    private int [ ] right;      // Right child of each slot
+    private int [ ] stack;      // Traversal scratch space
+
+    private int root;           // Slot of the root, or NIL
+    private int count;          // Number of items in the tree
+    private int used;           // Slots ever handed out; the high-water mark
+    private int freeList;       // First free slot below used, or NIL
+}
@@ -0,0 +1,379 @@
+package bst;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+// OffHeapIntBinarySearchTree class
+//
+// CONSTRUCTION: with no initializer
+//
+// ******************PUBLIC OPERATIONS*********************
+// void insert( x )       --> Insert x
+// void remove( x )       --> Remove x
+// boolean contains( x )  --> Return true if x is present
+// int findMin( )         --> Return smallest item
+// int findMax( )         --> Return largest item
+// boolean isEmpty( )     --> Return true if empty; else false
+// void makeEmpty( )      --> Remove all items
+// int nodeCount( )       --> Return number of items
+// void printLevels( )    --> Print tree level by level
+// void close( )          --> Release the arena
+// ******************ERRORS********************************
+// Throws UnderflowException as appropriate
+// Throws IllegalStateException once closed
+
+/**
+ * Implements an unbalanced binary search tree of int keys whose nodes
+ * live outside the Java heap. Each node is a 12-byte record
+ * (key, left, right) in an arena of direct ByteBuffer chunks, addressed
+ * by record index, so the garbage collector never sees the nodes.
+ * Removed records are reused through a free list threaded through the
+ * key field. The arena grows one chunk at a time, which keeps each
+ * buffer under the 2GB ByteBuffer limit.
+ */
+public class OffHeapIntBinarySearchTree implements AutoCloseable
+{
+    /**
+     * Construct the tree.
+     */
+    public OffHeapIntBinarySearchTree( )
+    {
+        chunks = new ByteBuffer[ 1 ];
+        makeEmpty( );
+    }
+
+    /**
+     * Insert into the tree; duplicates are ignored.
+     * @param x the item to insert.
+     */
+    public void insert( int x )
+    {
+        checkOpen( );
+        if( root == NIL )
+        {
+            root = allocate( x );
+            return;
+        }
+
+        int t = root;
+        for( ; ; )
+        {
+            int key = key( t );
+            if( x < key )
+            {
+                int next = left( t );
+                if( next == NIL )
+                {
+                    setLeft( t, allocate( x ) );
+                    return;
+                }
+                t = next;
+            }
+            else if( x > key )
+            {
+                int next = right( t );
+                if( next == NIL )
+                {
+                    setRight( t, allocate( x ) );
+                    return;
+                }
+                t = next;
+            }
+            else
+                return;  // Duplicate; do nothing
+        }
+    }
+
+    /**
+     * Remove from the tree. Nothing is done if x is not found.
+     * @param x the item to remove.
+     */
+    public void remove( int x )
+    {
+        checkOpen( );
+        int parent = NIL;
+        int t = root;
+        while( t != NIL && key( t ) != x )
+        {
+            parent = t;
+            t = x < key( t ) ? left( t ) : right( t );
+        }
+        if( t == NIL )
+            return;   // Item not found; do nothing
+
+        if( left( t ) != NIL && right( t ) != NIL ) // Two children
+        {
+            parent = t;
+            int min = right( t );
+            while( left( min ) != NIL )
+            {
+                parent = min;
+                min = left( min );
+            }
+            setKey( t, key( min ) );
+            t = min;
+        }
+
+        int replacement = left( t ) != NIL ? left( t ) : right( t );
+        if( parent == NIL )
+            root = replacement;
+        else if( left( parent ) == t )
+            setLeft( parent, replacement );
+        else
+            setRight( parent, replacement );
+        free( t );
+    }
+
+    /**
+     * Find the smallest item in the tree.
+     * @return smallest item.
+     */
+    public int findMin( )
+    {
+        checkOpen( );
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        int t = root;
+        for( int next; ( next = left( t ) ) != NIL; )
+            t = next;
+        return key( t );
+    }
+
+    /**
+     * Find the largest item in the tree.
+     * @return the largest item.
+     */
+    public int findMax( )
+    {
+        checkOpen( );
+        if( isEmpty( ) )
+            throw new UnderflowException( );
+        int t = root;
+        for( int next; ( next = right( t ) ) != NIL; )
+            t = next;
+        return key( t );
+    }
+
+    /**
+     * Find an item in the tree.
+     * @param x the item to search for.
+     * @return true if found.
+     */
+    public boolean contains( int x )
+    {
+        checkOpen( );
+        int t = root;
+        while( t != NIL )
+        {
+            int key = key( t );
+            if( x < key )
+                t = left( t );
+            else if( x > key )
+                t = right( t );
+            else
+                return true;    // Match
+        }
+        return false;
+    }
+
+    /**
+     * Make the tree logically empty. The arena is kept for reuse.
+     */
+    public void makeEmpty( )
+    {
+        checkOpen( );
+        root = NIL;
+        count = 0;
+        used = 0;
+        freeList = NIL;
+    }
+
+    /**
+     * Test if the tree is logically empty.
+     * @return true if empty, false otherwise.
+     */
+    public boolean isEmpty( )
+    {
+        return root == NIL;
+    }
+
+    /**
+     * Return the number of items in the tree.
+     * @return the number of items.
+     */
+    public int nodeCount( )
+    {
+        return count;
+    }
+
+    /**
+     * Print the tree one level per line, left to right.
+     * The level-order queue is a ring buffer of record indexes that only
+     * needs to hold about two levels at a time.
+     */
+    public void printLevels( )
+    {
+        checkOpen( );
+        if( isEmpty( ) )
+        {
+            System.out.println( "Empty tree" );
+            return;
+        }
+
+        int [ ] queue = new int[ 16 ];
+        int head = 0;
+        int size = 1;
+        queue[ 0 ] = root;
+        while( size > 0 )
+        {
+            int levelSize = size;
+            StringBuilder line = new StringBuilder( );
+            while( levelSize-- > 0 )
+            {
+                int t = queue[ head ];
+                head = ( head + 1 ) & ( queue.length - 1 );
+                size--;
+                line.append( key( t ) ).append( ' ' );
+                if( size + 2 > queue.length )
+                {
+                    queue = unwrap( queue, head, size );
+                    head = 0;
+                }
+                if( left( t ) != NIL )
+                    queue[ ( head + size++ ) & ( queue.length - 1 ) ] = left( t );
+                if( right( t ) != NIL )
+                    queue[ ( head + size++ ) & ( queue.length - 1 ) ] = right( t );
+            }
+            System.out.println( line );
+        }
+    }
+
+    /**
+     * Release the arena. The tree cannot be used afterwards.
+     * The chunks are dropped immediately; a direct buffer's native memory
+     * is returned once the buffer object itself is collected, as JDK 17
+     * has no supported way to free it sooner.
+     */
+    @Override
+    public void close( )
+    {
+        chunks = null;
+        root = NIL;
+        count = 0;
+    }
+
+    /**
+     * Copy a wrapped ring buffer into a new one of twice the capacity.
+     */
+    private static int [ ] unwrap( int [ ] queue, int head, int size )
+    {
+        int [ ] bigger = new int[ queue.length * 2 ];
+        for( int i = 0; i < size; i++ )
+            bigger[ i ] = queue[ ( head + i ) & ( queue.length - 1 ) ];
+        return bigger;
+    }
+
+    /**
+     * Internal method to obtain a leaf record holding x,
+     * from the free list if possible.
+     */
+    private int allocate( int x )
+    {
+        int t;
+        if( freeList != NIL )
+        {
+            t = freeList;
+            freeList = key( t );
+        }
+        else
+        {
+            t = used++;
+            int chunk = t >>> CHUNK_BITS;
+            if( chunk == chunks.length )
+                chunks = Arrays.copyOf( chunks, chunk * 2 );
+            if( chunks[ chunk ] == null )
+                chunks[ chunk ] = ByteBuffer.allocateDirect( CHUNK_RECORDS * RECORD_BYTES )
+                                            .order( ByteOrder.nativeOrder( ) );
+        }
+        setKey( t, x );
+        setLeft( t, NIL );
+        setRight( t, NIL );
+        count++;
+        return t;
+    }
+
+    /**
+     * Internal method to return record t to the free list.
+     */
+    private void free( int t )
+    {
+        setKey( t, freeList );
+        freeList = t;
+        count--;
+    }
+
+    private void checkOpen( )
+    {
+        if( chunks == null )
+            throw new IllegalStateException( "tree is closed" );
+    }
+
+        // Record accessors; t is a record index
+    private ByteBuffer chunk( int t )
+    {
+        return chunks[ t >>> CHUNK_BITS ];
+    }
+
+    private static int offset( int t )
+    {
+        return ( t & ( CHUNK_RECORDS - 1 ) ) * RECORD_BYTES;
+    }
+
+    private int key( int t )
+    {
+        return chunk( t ).getInt( offset( t ) + KEY );
+    }
+
+    private int left( int t )
+    {
+        return chunk( t ).getInt( offset( t ) + LEFT );
+    }
+
+    private int right( int t )
+    {
+        return chunk( t ).getInt( offset( t ) + RIGHT );
+    }
+
+    private void setKey( int t, int x )
+    {
+        chunk( t ).putInt( offset( t ) + KEY, x );
+    }
+
+    private void setLeft( int t, int child )
+    {
+        chunk( t ).putInt( offset( t ) + LEFT, child );
+    }
+
+    private void setRight( int t, int child )
+    {
+        chunk( t ).putInt( offset( t ) + RIGHT, child );
+    }
+
+    private static final int NIL = -1;
+
+        // Record layout
+    private static final int KEY   = 0;
+    private static final int LEFT  = 4;
+    private static final int RIGHT = 8;
+    private static final int RECORD_BYTES = 12;
+
+    private static final int CHUNK_BITS = 20;
+    private static final int CHUNK_RECORDS = 1 << CHUNK_BITS;
+
+    private ByteBuffer [ ] chunks;  // The arena; null once closed
+    private int root;               // Record index of the root, or NIL
+    private int count;              // Number of items in the tree
+    private int used;               // Records ever handed out
+    private int freeList;           // First free record below used, or NIL
+}
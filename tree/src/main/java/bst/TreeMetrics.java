@@ -0,0 +1,355 @@
+package bst;
+
+import java.util.Arrays;
+
+// TreeMetrics class
+//
+// CONSTRUCTION: by BinarySearchTree.enableMetrics( )
+//
+// ******************PUBLIC OPERATIONS*********************
+// Snapshot snapshot( )   --> Return a copy of the counters and shape
+// void reset( )          --> Zero the counters
+// Also the TreeMetricsMXBean attributes, for registration with JMX
+// ******************ERRORS********************************
+// None
+
+/**
+ * Operation metrics recorded by a BinarySearchTree while metrics are
+ * enabled: per-operation counts, latency histograms and compareTo
+ * calls, the distribution of the depths at which searches found their
+ * item, and the number of rotations. Snapshots add the tree's current
+ * height and the minimum height for its size, so a monitor can alert
+ * when the tree degenerates.
+ * <p>
+ * Latencies are kept in power-of-two buckets: bucket i counts operations
+ * that took from 2^i to 2^(i+1) - 1 nanoseconds. Depths of DEPTH_BUCKETS - 1
+ * or more share the last depth bucket.
+ * <p>
+ * The counters are plain fields written by the thread using the tree.
+ * A snapshot taken from another thread, for example through JMX, may
+ * be slightly stale or mix counts from before and after an operation.
+ * To publish the metrics through JMX:
+ * <pre>
+ * ManagementFactory.getPlatformMBeanServer( ).registerMBean(
+ *         tree.enableMetrics( ), new ObjectName( "bst:type=TreeMetrics,name=orders" ) );
+ * </pre>
+ */
+public class TreeMetrics implements TreeMetricsMXBean
+{
+    /**
+     * The operations that are counted and timed.
+     */
+    public enum Operation
+    {
+        INSERT, REMOVE, CONTAINS, FIND_MIN, FIND_MAX
+    }
+
+    public static final int LATENCY_BUCKETS = 64;
+    public static final int DEPTH_BUCKETS = 64;
+
+    /**
+     * Construct the metrics of a tree.
+     * @param tree the tree whose shape snapshots report.
+     */
+    TreeMetrics( BinarySearchTree<?> tree )
+    {
+        this.tree = tree;
+    }
+
+    /**
+     * Record one operation.
+     * @param op the operation.
+     * @param nanos its latency.
+     * @param compares the number of compareTo calls it made.
+     * @param hitDepth the depth of the node holding the item it found,
+     *        or -1 if it did not search for an item or did not find it.
+     */
+    void record( Operation op, long nanos, int compares, int hitDepth )
+    {
+        int i = op.ordinal( );
+        counts[ i ]++;
+        this.compares[ i ] += compares;
+        latencies[ i ][ 63 - Long.numberOfLeadingZeros( Math.max( nanos, 1 ) ) ]++;
+        if( hitDepth >= 0 )
+            depths[ Math.min( hitDepth, DEPTH_BUCKETS - 1 ) ]++;
+    }
+
+    /**
+     * Record one single rotation; a double rotation counts as two.
+     */
+    void rotation( )
+    {
+        rotations++;
+    }
+
+    /**
+     * Return a copy of the counters, with the tree's current shape.
+     * @return the snapshot.
+     */
+    public Snapshot snapshot( )
+    {
+        return new Snapshot( this );
+    }
+
+    /**
+     * Zero every counter.
+     */
+    @Override
+    public void reset( )
+    {
+        Arrays.fill( counts, 0 );
+        Arrays.fill( compares, 0 );
+        for( long [ ] histogram : latencies )
+            Arrays.fill( histogram, 0 );
+        Arrays.fill( depths, 0 );
+        rotations = 0;
+    }
+
+    @Override
+    public long getInsertCount( )
+    {
+        return counts[ Operation.INSERT.ordinal( ) ];
+    }
+
+    @Override
+    public long getRemoveCount( )
+    {
+        return counts[ Operation.REMOVE.ordinal( ) ];
+    }
+
+    @Override
+    public long getContainsCount( )
+    {
+        return counts[ Operation.CONTAINS.ordinal( ) ];
+    }
+
+    @Override
+    public long getRotationCount( )
+    {
+        return rotations;
+    }
+
+    @Override
+    public double getMeanCompares( )
+    {
+        return snapshot( ).meanCompares( );
+    }
+
+    @Override
+    public double getMeanHitDepth( )
+    {
+        return snapshot( ).meanHitDepth( );
+    }
+
+    @Override
+    public long getMedianLatencyNanos( )
+    {
+        return snapshot( ).latencyPercentile( 0.5 );
+    }
+
+    @Override
+    public long getP99LatencyNanos( )
+    {
+        return snapshot( ).latencyPercentile( 0.99 );
+    }
+
+    @Override
+    public int getNodeCount( )
+    {
+        return tree.nodeCount( );
+    }
+
+    @Override
+    public int getHeight( )
+    {
+        return tree.height( );
+    }
+
+    @Override
+    public int getOptimalHeight( )
+    {
+        return optimalHeight( tree.nodeCount( ) );
+    }
+
+    /**
+     * Return the minimum height of a binary tree of n nodes, or -1 if n is 0.
+     */
+    static int optimalHeight( int n )
+    {
+        return 31 - Integer.numberOfLeadingZeros( n );
+    }
+
+    /**
+     * An immutable copy of the metrics at one moment.
+     */
+    public static class Snapshot
+    {
+        private Snapshot( TreeMetrics m )
+        {
+            counts = m.counts.clone( );
+            compares = m.compares.clone( );
+            latencies = new long[ m.latencies.length ][ ];
+            for( int i = 0; i < latencies.length; i++ )
+                latencies[ i ] = m.latencies[ i ].clone( );
+            depths = m.depths.clone( );
+            rotations = m.rotations;
+            nodeCount = m.tree.nodeCount( );
+            height = m.tree.height( );
+        }
+
+        /**
+         * Return the number of times op was called.
+         */
+        public long count( Operation op )
+        {
+            return counts[ op.ordinal( ) ];
+        }
+
+        /**
+         * Return the number of compareTo calls made by op.
+         */
+        public long compares( Operation op )
+        {
+            return compares[ op.ordinal( ) ];
+        }
+
+        /**
+         * Return the mean number of compareTo calls per operation,
+         * over all operations, or 0 if there were none.
+         */
+        public double meanCompares( )
+        {
+            long n = 0;
+            long c = 0;
+            for( int i = 0; i < counts.length; i++ )
+            {
+                n += counts[ i ];
+                c += compares[ i ];
+            }
+            return n == 0 ? 0 : (double) c / n;
+        }
+
+        /**
+         * Return the latency histogram of op; see the class comment.
+         */
+        public long [ ] latencyHistogram( Operation op )
+        {
+            return latencies[ op.ordinal( ) ].clone( );
+        }
+
+        /**
+         * Return an upper bound on the latency of the given fraction of
+         * all operations: the top of the bucket where it is reached.
+         * @param p the fraction, from 0 to 1.
+         * @return the bound in nanoseconds, or 0 if there were no operations.
+         */
+        public long latencyPercentile( double p )
+        {
+            long [ ] merged = new long[ LATENCY_BUCKETS ];
+            long n = 0;
+            for( long [ ] histogram : latencies )
+                for( int b = 0; b < LATENCY_BUCKETS; b++ )
+                {
+                    merged[ b ] += histogram[ b ];
+                    n += histogram[ b ];
+                }
+            long seen = 0;
+            for( int b = 0; b < LATENCY_BUCKETS; b++ )
+            {
+                seen += merged[ b ];
+                if( seen > 0 && seen >= p * n )
+                    return b == LATENCY_BUCKETS - 1 ? Long.MAX_VALUE : ( 2L << b ) - 1;
+            }
+            return 0;
+        }
+
+        /**
+         * Return the histogram of the depths at which contains and
+         * remove found their item; the root is at depth 0.
+         */
+        public long [ ] depthHistogram( )
+        {
+            return depths.clone( );
+        }
+
+        /**
+         * Return the mean depth at which contains and remove found their
+         * item, or 0 if they found none. Depths beyond the last bucket
+         * count as the last bucket's depth.
+         */
+        public double meanHitDepth( )
+        {
+            long n = 0;
+            long sum = 0;
+            for( int d = 0; d < depths.length; d++ )
+            {
+                n += depths[ d ];
+                sum += d * depths[ d ];
+            }
+            return n == 0 ? 0 : (double) sum / n;
+        }
+
+        /**
+         * Return the number of single rotations; a double rotation counts as two.
+         */
+        public long rotations( )
+        {
+            return rotations;
+        }
+
+        /**
+         * Return the number of items in the tree.
+         */
+        public int nodeCount( )
+        {
+            return nodeCount;
+        }
+
+        /**
+         * Return the height of the tree, or -1 if empty.
+         */
+        public int height( )
+        {
+            return height;
+        }
+
+        /**
+         * Return the minimum height of a tree of this size, or -1 if empty.
+         */
+        public int optimalHeight( )
+        {
+            return TreeMetrics.optimalHeight( nodeCount );
+        }
+
+        @Override
+        public String toString( )
+        {
+            StringBuilder sb = new StringBuilder( );
+            for( Operation op : Operation.values( ) )
+                sb.append( op ).append( '=' ).append( count( op ) ).append( ' ' );
+            return sb.append( "compares/op=" ).append( String.format( "%.2f", meanCompares( ) ) )
+                     .append( " hitDepth=" ).append( String.format( "%.2f", meanHitDepth( ) ) )
+                     .append( " rotations=" ).append( rotations )
+                     .append( " height=" ).append( height )
+                     .append( " optimal=" ).append( optimalHeight( ) )
+                     .append( " p50<=" ).append( latencyPercentile( 0.5 ) ).append( "ns" )
+                     .append( " p99<=" ).append( latencyPercentile( 0.99 ) ).append( "ns" )
+                     .toString( );
+        }
+
+        private final long [ ] counts;
+        private final long [ ] compares;
+        private final long [ ] [ ] latencies;
+        private final long [ ] depths;
+        private final long rotations;
+        private final int nodeCount;
+        private final int height;
+    }
+
+    private final BinarySearchTree<?> tree;
+    private final long [ ] counts = new long[ Operation.values( ).length ];
+    private final long [ ] compares = new long[ Operation.values( ).length ];
+    private final long [ ] [ ] latencies = new long[ Operation.values( ).length ][ LATENCY_BUCKETS ];
+    private final long [ ] depths = new long[ DEPTH_BUCKETS ];
+    private long rotations;
+}
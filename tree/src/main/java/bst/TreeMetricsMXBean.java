@@ -0,0 +1,38 @@
+package bst;
+
+/**
+ * JMX view of the metrics of a BinarySearchTree. Counts are since
+ * the metrics were enabled or last reset; latencies are upper bounds
+ * taken from the power-of-two histogram buckets.
+ */
+public interface TreeMetricsMXBean
+{
+    long getInsertCount( );
+
+    long getRemoveCount( );
+
+    long getContainsCount( );
+
+    long getRotationCount( );
+
+    /** Mean compareTo calls per operation. */
+    double getMeanCompares( );
+
+    /** Mean depth at which contains and remove found their item. */
+    double getMeanHitDepth( );
+
+    long getMedianLatencyNanos( );
+
+    long getP99LatencyNanos( );
+
+    int getNodeCount( );
+
+    /** Current height of the tree; -1 if empty. */
+    int getHeight( );
+
+    /** Minimum height of a tree of the current size; -1 if empty. */
+    int getOptimalHeight( );
+
+    /** Zero every counter. */
+    void reset( );
+}